@@ -0,0 +1,135 @@
+package com.example.taskmanagement.benchmarks;
+
+import com.example.taskmanagement.dto.CommentSummary;
+import com.example.taskmanagement.dto.CountMode;
+import com.example.taskmanagement.dto.TaskPagedModel;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.entity.Comment;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.repository.RefreshSessionRepository;
+import com.example.taskmanagement.repository.UserRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data shared by the benchmarks: users and tasks shaped like the ones the API returns, and a
+ * {@link UserRepository} that answers from memory so no benchmark measures the database.
+ */
+final class Fixtures {
+
+    static final long TOTAL_TASKS = 100_000;
+
+    private Fixtures() {
+    }
+
+    static User user(long id, User.Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOa5fQ8s8QkWq1kY5E0v2bZnLqvYq5c7S");
+        user.setRole(role);
+        return user;
+    }
+
+    static Task task(long id, User author, User assignee, int comments) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setDescription("Description of task " + id + ", long enough to look like a real one.");
+        task.setStatus(Task.Status.values()[(int) (id % Task.Status.values().length)]);
+        task.setPriority(Task.Priority.values()[(int) (id % Task.Priority.values().length)]);
+        task.setAuthor(author);
+        task.setAssignee(assignee);
+        task.setVersion(id % 7);
+
+        List<Comment> list = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++) {
+            Comment comment = new Comment();
+            comment.setId(id * 1000 + i);
+            comment.setText("Comment " + i + " on task " + id);
+            comment.setAuthor(assignee);
+            comment.setTask(task);
+            list.add(comment);
+        }
+        task.setComments(list);
+        task.setCommentCount(comments);
+        return task;
+    }
+
+    static Page<Task> page(int size, int comments) {
+        User author = user(1, User.Role.ADMIN);
+        User assignee = user(2, User.Role.USER);
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(task(i + 1, author, assignee, comments));
+        }
+        return new PageImpl<>(tasks, PageRequest.of(0, size), TOTAL_TASKS);
+    }
+
+    /**
+     * The list query rows for {@link #page}: one summary per task.
+     */
+    static Page<TaskSummary> summaries(Page<Task> page) {
+        List<TaskSummary> summaries = page.stream()
+                .map(task -> new TaskSummary(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                        task.getPriority(), task.getAuthor().getEmail(), task.getAssignee().getEmail(),
+                        task.getCommentCount(), task.getVersion()))
+                .toList();
+        return new PageImpl<>(summaries, page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * The comment preview rows for {@link #page}: the latest {@code previewSize} comments of each
+     * task, as the preview query returns them.
+     */
+    static List<CommentSummary> commentPreviews(Page<Task> page, int previewSize) {
+        List<CommentSummary> previews = new ArrayList<>();
+        for (Task task : page) {
+            List<Comment> comments = task.getComments();
+            for (Comment comment : comments.subList(Math.max(0, comments.size() - previewSize), comments.size())) {
+                previews.add(new CommentSummary(comment.getId(), task.getId(), comment.getText(),
+                        comment.getAuthor().getEmail()));
+            }
+        }
+        return previews;
+    }
+
+    static <T> TaskPagedModel<T> pagedModel(Page<T> page) {
+        return new TaskPagedModel<>(page, CountMode.EXACT);
+    }
+
+    /**
+     * Repository that knows a single user; anything but the lookups used on the auth path fails.
+     */
+    static UserRepository userRepository(User user) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.of(user).filter(u -> u.getId().equals(args[0]));
+                    case "findByEmail" -> Optional.of(user).filter(u -> u.getEmail().equals(args[0]));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "UserRepository(" + user.getEmail() + ")";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Repository without sessions; the auth path only reads the in-memory revocation set.
+     */
+    static RefreshSessionRepository refreshSessionRepository() {
+        return (RefreshSessionRepository) Proxy.newProxyInstance(RefreshSessionRepository.class.getClassLoader(),
+                new Class<?>[]{RefreshSessionRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "RefreshSessionRepository()";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.taskmanagement.benchmarks;
+
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.jwt.JWTUtils;
+import com.example.taskmanagement.jwt.JwtAuthenticationFilter;
+import com.example.taskmanagement.jwt.VerifiedTokenCache;
+import com.example.taskmanagement.metrics.RequestMetricsFilter;
+import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.security.TokenRevocationRegistry;
+import com.example.taskmanagement.security.TokenVersionRegistry;
+import com.example.taskmanagement.security.UserCache;
+import com.example.taskmanagement.security.UserDetailedService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of an authenticated request through {@link JwtAuthenticationFilter}, from reading the
+ * header to the authentication in the security context. The users come from memory, so this is
+ * the CPU cost of the filter; {@code statelessAuth} switches between the two ways of resolving
+ * the principal.
+ * <p>
+ * With {@code instrumented} the request also passes {@link RequestMetricsFilter} and the filter's
+ * timers record into a Prometheus registry; without it they are no-ops, so the difference between
+ * the two is the cost of the request metrics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean statelessAuth;
+
+    @Param({"false", "true"})
+    private boolean cachedToken;
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    private TestFilter filter;
+    private RequestMetricsFilter metricsFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        User user = Fixtures.user(1, User.Role.USER);
+        UserRepository userRepository = Fixtures.userRepository(user);
+        JWTUtils jwtUtils = new JWTUtils(new VerifiedTokenCache(cachedToken ? 10_000 : 0));
+
+        MeterRegistry meterRegistry = instrumented
+                ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+                : new CompositeMeterRegistry();
+
+        filter = new TestFilter(jwtUtils, new UserDetailedService(new UserCache(userRepository)),
+                new TokenVersionRegistry(userRepository),
+                new TokenRevocationRegistry(Fixtures.refreshSessionRepository(), Duration.ofMinutes(15)), meterRegistry);
+        ReflectionTestUtils.setField(filter, "statelessAuth", statelessAuth);
+        authorization = "Bearer " + jwtUtils.generateAccessToken(user, UUID.randomUUID());
+        if (instrumented) {
+            metricsFilter = new RequestMetricsFilter(meterRegistry, new MockEnvironment(), 20);
+        }
+    }
+
+    @Benchmark
+    public void doFilterInternal(Blackhole blackhole) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/assignee");
+        request.addHeader("Authorization", authorization);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/assignee");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+
+        if (metricsFilter != null) {
+            metricsFilter.doFilter(request, response, (req, res) ->
+                    filter.doFilterInternal((HttpServletRequest) req, (HttpServletResponse) res, chain));
+        } else {
+            filter.doFilterInternal(request, response, chain);
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Makes the protected filter method callable directly, skipping the once-per-request bookkeeping.
+     */
+    private static final class TestFilter extends JwtAuthenticationFilter {
+
+        TestFilter(JWTUtils jwtUtils, UserDetailedService userDetailedService,
+                   TokenVersionRegistry tokenVersionRegistry, TokenRevocationRegistry tokenRevocationRegistry,
+                   MeterRegistry meterRegistry) {
+            super(jwtUtils, userDetailedService, tokenVersionRegistry, tokenRevocationRegistry, meterRegistry);
+        }
+
+        @Override
+        public void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                     FilterChain filterChain)
+                throws ServletException, IOException {
+            super.doFilterInternal(request, response, filterChain);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.taskmanagement.benchmarks;
+
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.jwt.JWTUtils;
+import com.example.taskmanagement.jwt.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and verification. With {@code cached=false} the verified token cache is disabled,
+ * so every call parses the token and checks its signature; with {@code cached=true} the token is
+ * verified once and then served from the cache, as for a client sending the same token repeatedly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private final JWTUtils jwtUtils = new JWTUtils(new VerifiedTokenCache(0));
+    private final User user = Fixtures.user(1, User.Role.USER);
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean isTokenValid(Verification verification) {
+        return verification.jwtUtils.isTokenValid(verification.token);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims(Verification verification) {
+        return verification.jwtUtils.extractAllClaims(verification.token);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Verification {
+
+        @Param({"false", "true"})
+        private boolean cached;
+
+        private JWTUtils jwtUtils;
+        private String token;
+
+        @Setup
+        public void setUp() {
+            jwtUtils = new JWTUtils(new VerifiedTokenCache(cached ? 10_000 : 0));
+            token = jwtUtils.generateToken(Fixtures.user(1, User.Role.USER));
+        }
+    }
+}
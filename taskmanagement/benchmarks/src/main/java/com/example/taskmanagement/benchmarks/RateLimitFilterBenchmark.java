@@ -0,0 +1,96 @@
+package com.example.taskmanagement.benchmarks;
+
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.security.RateLimitFilter;
+import com.example.taskmanagement.security.RateLimiter;
+import com.example.taskmanagement.security.UserPrincipal;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The rate limiting of an authenticated list request: {@code acquire} is the bucket lookup and
+ * update alone, {@code doFilter} the whole {@link RateLimitFilter} including the page size cost.
+ * Requests rotate over {@code clients} users, all within their limits, so every call takes tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    @Param({"1", "10000"})
+    private int clients;
+
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+    private String[] emails;
+    private Authentication[] authentications;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.rate-limit.limits[USER READ].rate", "1000000000")
+                .withProperty("app.rate-limit.limits[USER READ].burst", "1000");
+        rateLimiter = new RateLimiter(environment, new CompositeMeterRegistry(), Duration.ofMinutes(10), clients);
+        filter = new RateLimitFilter(rateLimiter, new CompositeMeterRegistry(), true, 50, 2000);
+
+        emails = new String[clients];
+        authentications = new Authentication[clients];
+        for (int i = 0; i < clients; i++) {
+            User user = Fixtures.user(i + 1, User.Role.USER);
+            UserPrincipal principal = new UserPrincipal(user);
+            emails[i] = user.getEmail();
+            authentications[i] = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        }
+        request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.setParameter("size", "100");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public long acquire() {
+        int client = next();
+        return rateLimiter.acquire(RateLimiter.Tier.USER, emails[client], RateLimiter.RouteClass.READ, 2);
+    }
+
+    @Benchmark
+    public void doFilter(Blackhole blackhole) throws ServletException, IOException {
+        SecurityContextHolder.getContext().setAuthentication(authentications[next()]);
+        FilterChain chain = (req, res) -> blackhole.consume(req);
+        filter.doFilter(request, response, chain);
+    }
+
+    private int next() {
+        int client = next;
+        next = client + 1 == clients ? 0 : client + 1;
+        return client;
+    }
+}
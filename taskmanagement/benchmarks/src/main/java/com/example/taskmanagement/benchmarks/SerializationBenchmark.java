@@ -0,0 +1,64 @@
+package com.example.taskmanagement.benchmarks;
+
+import com.example.taskmanagement.dto.TaskPagedModel;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.mapper.TaskMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a page of tasks as the list endpoints return it, with an object mapper
+ * configured the way Spring MVC configures its own. The output goes to a reused buffer, as it
+ * would to the response stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int pageSize;
+
+    @Param({"0", "3"})
+    private int comments;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+    private ObjectWriter writer;
+    private TaskPagedModel<TaskResponse> model;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(TaskPagedModel.class);
+        TaskMapper taskMapper = new TaskMapper();
+        Page<Task> page = Fixtures.page(pageSize, comments);
+        model = Fixtures.pagedModel(taskMapper.fromSummaries(Fixtures.summaries(page),
+                Fixtures.commentPreviews(page, taskMapper.getCommentPreviewSize())));
+    }
+
+    @Benchmark
+    public int writePagedModel() throws IOException {
+        out.reset();
+        writer.writeValue(out, model);
+        return out.size();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.taskmanagement.benchmarks;
+
+import com.example.taskmanagement.dto.CommentSummary;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.mapper.TaskMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response mapping of a page of list query rows with their comment previews, which every list
+ * endpoint runs, and of a single entity as returned after create and update. At the page sizes
+ * clients use and with tasks from uncommented to heavily commented.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int pageSize;
+
+    @Param({"0", "3", "100"})
+    private int comments;
+
+    private final TaskMapper taskMapper = new TaskMapper();
+    private Page<TaskSummary> summaries;
+    private List<CommentSummary> previews;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        Page<Task> page = Fixtures.page(pageSize, comments);
+        summaries = Fixtures.summaries(page);
+        previews = Fixtures.commentPreviews(page, taskMapper.getCommentPreviewSize());
+        task = page.getContent().get(0);
+    }
+
+    @Benchmark
+    public TaskResponse fromTask() {
+        return taskMapper.fromTask(task);
+    }
+
+    @Benchmark
+    public Page<TaskResponse> fromSummaries() {
+        return taskMapper.fromSummaries(summaries, previews);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.taskmanagement.audit;
+
+import com.example.taskmanagement.dto.CursorPage;
+import com.example.taskmanagement.dto.TaskHistoryEntry;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.repository.TaskAuditRepository;
+import com.example.taskmanagement.repository.TaskRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of task changes: who changed what and when, read back per task with
+ * {@link #getHistory}.
+ * <p>
+ * A committed change only puts a {@link TaskHistoryEntry} on a lock-free queue of at most
+ * {@code app.audit.capacity} entries; the {@code task-audit-writer} thread inserts them into
+ * {@code task_audit} in JDBC batches of {@code app.audit.batch-size}, as soon as a batch is full
+ * and at least every {@code app.audit.flush-interval}. When the queue is full,
+ * {@code app.audit.overflow} decides: {@code DROP} discards the new entry, {@code BLOCK} makes
+ * the request wait up to {@code app.audit.block-timeout} for room before discarding it. A batch
+ * the database refuses is retried on the next flush; after {@code app.audit.max-attempts} failed
+ * attempts its entries are logged to the {@code ...TaskAuditTrail.dead-letter} logger and
+ * discarded, so the writer moves on. Bulk updates write their audit entries in the update
+ * statement itself and are skipped here.
+ * <p>
+ * The queue is drained on shutdown. A crash loses what was queued and not yet written: at most
+ * {@code capacity + batch-size} entries, normally one flush interval's worth. Entries show up in
+ * the history once written, up to a flush interval after the change.
+ */
+@Slf4j
+@Component
+public class TaskAuditTrail {
+
+    public enum Overflow {
+        DROP, BLOCK
+    }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Logger DEAD_LETTER = LoggerFactory.getLogger(TaskAuditTrail.class.getName() + ".dead-letter");
+
+    private final TaskAuditRepository taskAuditRepository;
+    private final TaskRepository taskRepository;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Overflow overflow;
+    private final long blockTimeoutNanos;
+    private final int maxAttempts;
+
+    private final Queue<TaskHistoryEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * Taken off the queue but not written yet; only touched by the writer thread.
+     */
+    private List<TaskHistoryEntry> batch = new ArrayList<>();
+    private int attempts;
+    private long droppedReported;
+
+    @Autowired
+    public TaskAuditTrail(TaskAuditRepository taskAuditRepository, TaskRepository taskRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.capacity:10000}") int capacity,
+                          @Value("${app.audit.batch-size:200}") int batchSize,
+                          @Value("${app.audit.flush-interval:200ms}") Duration flushInterval,
+                          @Value("${app.audit.overflow:DROP}") Overflow overflow,
+                          @Value("${app.audit.block-timeout:1s}") Duration blockTimeout,
+                          @Value("${app.audit.max-attempts:5}") int maxAttempts) {
+        this(taskAuditRepository, taskRepository, capacity, batchSize, flushInterval, overflow, blockTimeout,
+                maxAttempts);
+        Gauge.builder("audit.queue.size", queued, AtomicInteger::get)
+                .description("Audit entries waiting to be written")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.entries.written", written, LongAdder::sum)
+                .description("Audit entries written to the database")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.entries.dropped", dropped, LongAdder::sum)
+                .description("Audit entries discarded because the queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.entries.failed", failed, LongAdder::sum)
+                .description("Audit entries discarded after the database refused them max-attempts times")
+                .register(meterRegistry);
+        writer.start();
+    }
+
+    /**
+     * Does not start the writer thread; entries are written by calling {@link #flush()}.
+     */
+    TaskAuditTrail(TaskAuditRepository taskAuditRepository, TaskRepository taskRepository, int capacity,
+                   int batchSize, Duration flushInterval, Overflow overflow, Duration blockTimeout,
+                   int maxAttempts) {
+        this.taskAuditRepository = taskAuditRepository;
+        this.taskRepository = taskRepository;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflow = overflow;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.maxAttempts = maxAttempts;
+        this.writer = new Thread(this::run, "task-audit-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Runs on the thread that committed the change, so the current authentication is the user
+     * who made it; changes made outside of a request have no {@code changedBy}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.audited()) {
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        offer(TaskHistoryEntry.of(event, authentication != null ? authentication.getName() : null, Instant.now()));
+    }
+
+    /**
+     * Changes of the task after the entry with id {@code afterId}, oldest first. The history of
+     * a deleted task stays readable.
+     */
+    public CursorPage<TaskHistoryEntry> getHistory(Long taskId, Long afterId, int size) {
+        List<TaskHistoryEntry> rows = taskAuditRepository.findAfter(taskId, afterId, size + 1);
+        if (rows.isEmpty() && afterId == 0 && !taskRepository.existsById(taskId)) {
+            throw new NoSuchElementException("Task not found");
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<TaskHistoryEntry> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? String.valueOf(content.get(content.size() - 1).getId()) : null;
+        return new CursorPage<>(content, size, hasNext, nextCursor);
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    boolean offer(TaskHistoryEntry entry) {
+        if (!reserve()) {
+            dropped.increment();
+            return false;
+        }
+        queue.offer(entry);
+        if (queued.get() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * Writes what is queued, in batches. Returns {@code false} if the database refused a batch;
+     * it is kept and written first on the next flush, unless that was its last attempt.
+     */
+    boolean flush() {
+        while (true) {
+            if (batch.isEmpty()) {
+                for (TaskHistoryEntry entry; batch.size() < batchSize && (entry = queue.poll()) != null; ) {
+                    queued.decrementAndGet();
+                    batch.add(entry);
+                }
+            }
+            if (batch.isEmpty()) {
+                return true;
+            }
+            try {
+                taskAuditRepository.insertAll(batch);
+            } catch (DataAccessException e) {
+                log.warn("Could not write {} audit entries, {} more queued: {}", batch.size(), queued.get(),
+                        e.getMessage());
+                if (++attempts >= maxAttempts) {
+                    discardBatch();
+                }
+                return false;
+            }
+            written.add(batch.size());
+            batch = new ArrayList<>(batchSize);
+            attempts = 0;
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 10_000);
+        if (writer.isAlive()) {
+            log.error("Audit writer did not stop, {} queued entries are not written", queued.get());
+        } else if (!flush()) {
+            log.error("{} audit entries were not written", batch.size() + queued.get());
+        }
+    }
+
+    private void discardBatch() {
+        log.error("Discarding {} audit entries after {} failed attempts", batch.size(), attempts);
+        batch.forEach(entry -> DEAD_LETTER.error("{}", entry));
+        failed.add(batch.size());
+        batch = new ArrayList<>(batchSize);
+        attempts = 0;
+    }
+
+    private boolean reserve() {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (true) {
+            int current = queued.get();
+            if (current < capacity) {
+                if (queued.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+                continue;
+            }
+            if (overflow == Overflow.DROP || !running || System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+    }
+
+    private void run() {
+        boolean failed = false;
+        while (running) {
+            if (failed || queued.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            failed = !flush();
+            long droppedNow = dropped.sum();
+            if (droppedNow > droppedReported) {
+                log.warn("Audit queue is full, {} entries dropped", droppedNow - droppedReported);
+                droppedReported = droppedNow;
+            }
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.example.taskmanagement.configuration;
 
 import com.example.taskmanagement.jwt.JwtAuthenticationFilter;
+import com.example.taskmanagement.security.AuthenticationFailureFilter;
+import com.example.taskmanagement.security.HashingAuthenticationProvider;
+import com.example.taskmanagement.security.PasswordHashingAwareEntryPoint;
+import com.example.taskmanagement.security.PasswordHashingExecutor;
+import com.example.taskmanagement.security.RateLimitFilter;
+import com.example.taskmanagement.security.UserDetailedService;
+import com.example.taskmanagement.service.UserService;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.Customizer;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,6 +24,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @AllArgsConstructor
@@ -21,6 +32,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final AuthenticationFailureFilter authenticationFailureFilter;
 
 
     @Bean
@@ -28,12 +41,21 @@ public class SecurityConfig {
         return http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
-
-                        .requestMatchers("/api/user/register/**").permitAll()
+                        // completes a response whose request was authorized already, e.g. the task event stream
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // login checks the credentials of the body itself, once
+                        .requestMatchers("/api/user/register/**", "/api/user/login").permitAll()
+                        // authenticated by the refresh token in the body
+                        .requestMatchers("/api/user/refresh", "/api/user/logout").permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-resources/**", "/v3/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
-                .httpBasic(Customizer.withDefaults())
+                .httpBasic(basic -> basic.authenticationEntryPoint(new PasswordHashingAwareEntryPoint()))
+                // before JWT and Basic authentication, so that it sees the 401 of a failed attempt
+                .addFilterBefore(authenticationFailureFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterAfter(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // after both JWT and Basic authentication, so that users are limited by their own buckets
+                .addFilterAfter(rateLimitFilter, BasicAuthenticationFilter.class)
                 .sessionManagement(httpSecuritySessionManagementConfigurer ->
                         httpSecuritySessionManagementConfigurer.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .build();
@@ -45,7 +67,21 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+                                                         PasswordHashingExecutor passwordHashingExecutor,
+                                                         UserDetailedService userDetailedService,
+                                                         UserService userService) {
+        DaoAuthenticationProvider provider = new HashingAuthenticationProvider(passwordEncoder, passwordHashingExecutor);
+        provider.setUserDetailsService(userDetailedService);
+        provider.setUserDetailsPasswordService(userService);
+        return provider;
+    }
+
+    /**
+     * Hashes stored with a lower {@code app.security.bcrypt-strength} are upgraded at the next login.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
\ No newline at end of file
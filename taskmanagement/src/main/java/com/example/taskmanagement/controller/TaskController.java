@@ -1,22 +1,46 @@
 package com.example.taskmanagement.controller;
 
+import com.example.taskmanagement.audit.TaskAuditTrail;
+import com.example.taskmanagement.dto.CommentSummary;
+import com.example.taskmanagement.dto.CountMode;
+import com.example.taskmanagement.dto.CursorPage;
+import com.example.taskmanagement.dto.ExportFormat;
+import com.example.taskmanagement.dto.KeysetCursor;
+import com.example.taskmanagement.dto.TaskBulkUpdate;
+import com.example.taskmanagement.dto.TaskBulkUpdateResult;
+import com.example.taskmanagement.dto.TaskFilter;
+import com.example.taskmanagement.dto.TaskHistoryEntry;
+import com.example.taskmanagement.dto.TaskImportResult;
+import com.example.taskmanagement.dto.TaskPagedModel;
 import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.dto.TaskStats;
 import com.example.taskmanagement.entity.Comment;
 import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.event.TaskEventBus;
+import com.example.taskmanagement.service.TaskExportService;
+import com.example.taskmanagement.service.TaskImportService;
 import com.example.taskmanagement.service.TaskService;
+import com.example.taskmanagement.service.TaskStatistics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -25,6 +49,11 @@ import org.springframework.web.bind.annotation.*;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
+    private final TaskExportService taskExportService;
+    private final TaskEventBus taskEventBus;
+    private final TaskStatistics taskStatistics;
+    private final TaskAuditTrail taskAuditTrail;
 
 
     @Operation(summary = "Создать задачу", description = "Доступно только для ADMIN")
@@ -38,17 +67,50 @@ public class TaskController {
         return new ResponseEntity<>(taskService.createTask(task, authenticatedUser.getUsername()), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Массовый импорт задач", description = "Доступно только для ADMIN. "
+            + "Принимает JSON-массив или NDJSON (по задаче на строку). Без authorId автором становится "
+            + "текущий пользователь. Ошибочные элементы пропускаются и перечисляются в ответе по номеру")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт завершён, см. created и errors"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public TaskImportResult importTasks(HttpServletRequest request,
+                                        @AuthenticationPrincipal UserDetails authenticatedUser) throws IOException {
+        return taskImportService.importTasks(request.getInputStream(), authenticatedUser.getUsername());
+    }
 
-    @Operation(summary = "Обновить задачу", description = "Доступно только для ADMIN")
+    @Operation(summary = "Массовое изменение задач", description = "Доступно для USER и ADMIN. "
+            + "Задачи выбираются по ids и/или filter, изменяются status, priority и assigneeId одним запросом. "
+            + "USER может менять только статус своих задач, остальные выбранные задачи пропускаются")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задачи изменены, возвращены их id"),
+            @ApiResponse(responseCode = "400", description = "Не указаны задачи или изменения"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "USER пытается изменить приоритет или исполнителя")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @PatchMapping("/bulk")
+    public TaskBulkUpdateResult bulkUpdate(@RequestBody TaskBulkUpdate update,
+                                           @AuthenticationPrincipal UserDetails authenticatedUser) {
+        return taskService.bulkUpdate(update, authenticatedUser.getUsername());
+    }
+
+
+    @Operation(summary = "Обновить задачу", description = "Доступно только для ADMIN. "
+            + "С заголовком If-Match задача обновляется, только если её версия не изменилась")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Задача обновлена"),
             @ApiResponse(responseCode = "404", description = "Задача не найдена"),
-            @ApiResponse(responseCode = "401", description = "Unauthorized")
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "412", description = "Задача уже изменена другим запросом")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}")
-    public ResponseEntity<TaskResponse> updateTask(@PathVariable Long id, @RequestBody Task updatedTask) {
-        return ResponseEntity.ok(taskService.updateTask(id, updatedTask));
+    public ResponseEntity<TaskResponse> updateTask(@PathVariable Long id, @RequestBody Task updatedTask,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(taskService.updateTask(id, updatedTask, TaskETags.expectedVersion(ifMatch)));
     }
 
 
@@ -66,15 +128,126 @@ public class TaskController {
     }
 
 
-    @Operation(summary = "Получить все задачи", description = "Доступно только для ADMIN")
+    @Operation(summary = "Получить задачу", description = "Доступно для USER и ADMIN. "
+            + "ETag ответа — версия задачи. Если она совпадает с If-None-Match, возвращается 304 без тела")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задача получена"),
+            @ApiResponse(responseCode = "304", description = "Задача не изменилась"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskResponse> getTask(@PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            long version = taskService.getTaskVersion(id);
+            if (TaskETags.matches(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(TaskETags.of(version)).build();
+            }
+        }
+        return withETag(taskService.getTask(id));
+    }
+
+
+    @Operation(summary = "Получить все задачи", description = "Доступно только для ADMIN. "
+            + "Фильтры status, priority, authorId, assigneeId и titlePrefix можно комбинировать")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список задач получен"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
-    public PagedModel<TaskResponse> getAllTasks(Pageable pageable) {
-        return new PagedModel<>(taskService.getAllTasks(pageable));
+    public ResponseEntity<TaskPagedModel<TaskResponse>> getAllTasks(TaskFilter filter, Pageable pageable,
+                                                                    @RequestParam(defaultValue = "EXACT") CountMode count) {
+        return withETag(new TaskPagedModel<>(taskService.getTasks(filter, pageable, count), count));
+    }
+
+    @Operation(summary = "Получить все задачи (курсорная пагинация)",
+            description = "Доступно только для ADMIN. Пустой cursor начинает выборку, nextCursor продолжает")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач получен"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<TaskResponse>> scrollAllTasks(TaskFilter filter, @RequestParam String cursor,
+                                                                   Pageable pageable) {
+        return withETag(taskService.scrollTasks(filter, toCursor(cursor, pageable), pageable.getPageSize()));
+    }
+
+    @Operation(summary = "Выгрузить все задачи", description = "Доступно только для ADMIN. "
+            + "Задачи, отфильтрованные как в списке, передаются потоком в формате NDJSON или CSV, без пагинации")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка передана"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public void exportTasks(TaskFilter filter, @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("tasks." + format.getExtension()).build().toString());
+        taskExportService.exportTasks(filter, format, response.getOutputStream());
+    }
+
+    @Operation(summary = "Поток изменений задач", description = "Доступно для USER и ADMIN. "
+            + "Server-Sent Events об изменениях задач, автором или исполнителем которых является пользователь. "
+            + "Событие RESYNC означает, что часть событий пропущена и списки нужно перечитать")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Подписка открыта"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@AuthenticationPrincipal UserDetails authenticatedUser) {
+        return taskEventBus.subscribe(authenticatedUser.getUsername());
+    }
+
+    @Operation(summary = "Статистика задач", description = "Доступно для USER и ADMIN. "
+            + "Количество задач по статусам и приоритетам: всех, либо назначенных исполнителю (assigneeId), "
+            + "либо созданных автором (authorId)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика получена"),
+            @ApiResponse(responseCode = "400", description = "Указаны одновременно assigneeId и authorId"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/stats")
+    public TaskStats getStats(@RequestParam(required = false) Long assigneeId,
+                              @RequestParam(required = false) Long authorId) {
+        return taskStatistics.getStats(assigneeId, authorId);
+    }
+
+    @Operation(summary = "Полнотекстовый поиск задач", description = "Доступно только для ADMIN. "
+            + "Ищет по названию, описанию и комментариям, результаты отсортированы по релевантности. "
+            + "Общее количество точное до 1000 совпадений, дальше оценочное")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты поиска получены"),
+            @ApiResponse(responseCode = "400", description = "Слишком глубокая страница"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/search")
+    public ResponseEntity<TaskPagedModel<TaskResponse>> searchTasks(@RequestParam String q, Pageable pageable) {
+        return withETag(new TaskPagedModel<>(taskService.searchTasks(q, pageable), CountMode.ESTIMATE));
+    }
+
+    @Operation(summary = "Перестроить поисковый индекс", description = "Доступно только для ADMIN. "
+            + "Индекс перечитывается из базы в фоне")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Перестроение запущено"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        taskService.rebuildSearchIndex();
+        return ResponseEntity.accepted().build();
     }
 
 
@@ -85,8 +258,23 @@ public class TaskController {
     })
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @GetMapping("/assignee")
-    public PagedModel<TaskResponse> getTasksByAssignee(@RequestParam Long userId, Pageable pageable) {
-        return new PagedModel<>(taskService.getTasksByAssignee(userId, pageable));
+    public ResponseEntity<TaskPagedModel<TaskResponse>> getTasksByAssignee(@RequestParam Long userId, Pageable pageable,
+                                                                           @RequestParam(defaultValue = "EXACT") CountMode count) {
+        return withETag(new TaskPagedModel<>(taskService.getTasksByAssignee(userId, pageable, count), count));
+    }
+
+    @Operation(summary = "Получить задачи по исполнителю (курсорная пагинация)", description = "Доступно для USER и ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач получен"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping(value = "/assignee", params = "cursor")
+    public ResponseEntity<CursorPage<TaskResponse>> scrollTasksByAssignee(@RequestParam Long userId,
+                                                                          @RequestParam String cursor, Pageable pageable) {
+        return withETag(taskService.scrollTasks(TaskFilter.byAssignee(userId), toCursor(cursor, pageable),
+                pageable.getPageSize()));
     }
 
     @Operation(summary = "Получить задачи по автору", description = "Доступно для USER и ADMIN")
@@ -96,52 +284,78 @@ public class TaskController {
     })
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @GetMapping("/author")
-    public PagedModel<TaskResponse> getTasksByAuthor(@RequestParam Long userId, Pageable pageable) {
-        return new PagedModel<>(taskService.getTasksByAuthor(userId, pageable));
+    public ResponseEntity<TaskPagedModel<TaskResponse>> getTasksByAuthor(@RequestParam Long userId, Pageable pageable,
+                                                                         @RequestParam(defaultValue = "EXACT") CountMode count) {
+        return withETag(new TaskPagedModel<>(taskService.getTasksByAuthor(userId, pageable, count), count));
+    }
+
+    @Operation(summary = "Получить задачи по автору (курсорная пагинация)", description = "Доступно для USER и ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач получен"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping(value = "/author", params = "cursor")
+    public ResponseEntity<CursorPage<TaskResponse>> scrollTasksByAuthor(@RequestParam Long userId,
+                                                                        @RequestParam String cursor, Pageable pageable) {
+        return withETag(taskService.scrollTasks(TaskFilter.byAuthor(userId), toCursor(cursor, pageable),
+                pageable.getPageSize()));
     }
 
 
-    @Operation(summary = "Изменить приоритет задачи", description = "Доступно только для ADMIN")
+    @Operation(summary = "Изменить приоритет задачи", description = "Доступно только для ADMIN. "
+            + "Поддерживает If-Match")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Приоритет задачи изменен"),
             @ApiResponse(responseCode = "404", description = "Задача не найдена"),
-            @ApiResponse(responseCode = "401", description = "Unauthorized")
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "412", description = "Задача уже изменена другим запросом")
     })
 
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}/priority")
     public ResponseEntity<TaskResponse> updatePriority(@PathVariable Long id,
                                                        @RequestParam Task.Priority newPriority,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                        @AuthenticationPrincipal UserDetails authenticatedUser) {
-        return ResponseEntity.ok(taskService.updatePriority(id, newPriority, authenticatedUser.getUsername()));
+        return withETag(taskService.updatePriority(id, newPriority, authenticatedUser.getUsername(),
+                TaskETags.expectedVersion(ifMatch)));
     }
 
 
-    @Operation(summary = "Назначить исполнителя задачи", description = "Доступно только для ADMIN")
+    @Operation(summary = "Назначить исполнителя задачи", description = "Доступно только для ADMIN. "
+            + "Поддерживает If-Match")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Исполнитель назначен"),
             @ApiResponse(responseCode = "404", description = "Задача или пользователь не найдены"),
-            @ApiResponse(responseCode = "401", description = "Unauthorized")
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "412", description = "Задача уже изменена другим запросом")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}/assign")
-    public ResponseEntity<TaskResponse> assignTask(@PathVariable Long id, @RequestParam Long assigneeId) {
-        return ResponseEntity.ok(taskService.assignTask(id, assigneeId));
+    public ResponseEntity<TaskResponse> assignTask(@PathVariable Long id, @RequestParam Long assigneeId,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(taskService.assignTask(id, assigneeId, TaskETags.expectedVersion(ifMatch)));
     }
 
 
-    @Operation(summary = "Изменить статус задачи", description = "Доступно для USER и ADMIN (только для своих задач)")
+    @Operation(summary = "Изменить статус задачи", description = "Доступно для USER и ADMIN (только для своих задач). "
+            + "Поддерживает If-Match")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Статус задачи изменен"),
             @ApiResponse(responseCode = "404", description = "Задача не найдена"),
-            @ApiResponse(responseCode = "401", description = "Unauthorized")
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "412", description = "Задача уже изменена другим запросом")
     })
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @PutMapping("/{id}/status")
     public ResponseEntity<TaskResponse> updateStatus(@PathVariable Long id,
                                                      @RequestParam Task.Status newStatus,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                      @AuthenticationPrincipal UserDetails authenticatedUser) {
-        return ResponseEntity.ok(taskService.updateStatus(id, newStatus, authenticatedUser.getUsername()));
+        return withETag(taskService.updateStatus(id, newStatus, authenticatedUser.getUsername(),
+                TaskETags.expectedVersion(ifMatch)));
     }
 
     @Operation(summary = "Добавить комментарий к задаче", description = "Доступно для USER и ADMIN (только для своих задач)")
@@ -158,5 +372,60 @@ public class TaskController {
         return ResponseEntity.ok(taskService.addComment(id, comment, authenticatedUser.getUsername()));
     }
 
+    @Operation(summary = "Получить комментарии задачи", description = "Доступно для USER и ADMIN. "
+            + "Без cursor возвращает первые комментарии, nextCursor продолжает выборку")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список комментариев получен"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/{id}/comments")
+    public CursorPage<CommentSummary> getComments(@PathVariable Long id,
+                                                  @RequestParam(defaultValue = "0") Long cursor,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        return taskService.getComments(id, cursor, Math.min(Math.max(size, 1), 100));
+    }
+
+    @Operation(summary = "Получить историю изменений задачи", description = "Доступно для USER и ADMIN. "
+            + "Кто и когда менял статус, приоритет, исполнителя или содержимое задачи, от старых изменений к новым. "
+            + "Изменение появляется в истории с задержкой до app.audit.flush-interval; история удалённой задачи "
+            + "сохраняется. nextCursor продолжает выборку")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "История получена"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/{id}/history")
+    public CursorPage<TaskHistoryEntry> getHistory(@PathVariable Long id,
+                                                   @RequestParam(defaultValue = "0") Long cursor,
+                                                   @RequestParam(defaultValue = "50") int size) {
+        return taskAuditTrail.getHistory(id, cursor, Math.min(Math.max(size, 1), 500));
+    }
+
+
+    private static KeysetCursor toCursor(String cursor, Pageable pageable) {
+        return cursor.isEmpty() ? KeysetCursor.first(pageable.getSort()) : KeysetCursor.decode(cursor);
+    }
+
+    private static ResponseEntity<TaskResponse> withETag(TaskResponse task) {
+        return ResponseEntity.ok().eTag(TaskETags.of(task.getVersion())).body(task);
+    }
+
+    /**
+     * A matching If-None-Match turns into 304 Not Modified in Spring MVC, after the page has been
+     * loaded but before it is serialized.
+     */
+    private static ResponseEntity<TaskPagedModel<TaskResponse>> withETag(TaskPagedModel<TaskResponse> page) {
+        return ResponseEntity.ok().eTag(TaskETags.ofPage(page.getContent(), page.getPage())).body(page);
+    }
+
+    private static ResponseEntity<CursorPage<TaskResponse>> withETag(CursorPage<TaskResponse> page) {
+        return ResponseEntity.ok()
+                .eTag(TaskETags.ofPage(page.getContent(), page.isHasNext() + ":" + page.getNextCursor()))
+                .body(page);
+    }
+
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * ETags of the task endpoints. The strong ETag of a task is its version, which changes with every
+ * update of the task or its comments. A page of tasks gets a weak ETag derived from the page
+ * position and the ids and versions of its tasks, so it stays the same as long as none of them
+ * changed and no task moved in or out of the page.
+ */
+final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String ofPage(List<TaskResponse> tasks, Object position) {
+        StringBuilder state = new StringBuilder(String.valueOf(position));
+        for (TaskResponse task : tasks) {
+            state.append('|').append(task.getId()).append(':').append(task.getVersion());
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Tells whether an If-None-Match header lists the task at {@code version}; weak comparison,
+     * as required for GET.
+     */
+    static boolean matches(String ifNoneMatch, long version) {
+        String etag = of(version);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the version a client expects from If-Match. {@code *} and a missing header mean any
+     * version.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must contain the ETag of the task");
+        }
+    }
+}
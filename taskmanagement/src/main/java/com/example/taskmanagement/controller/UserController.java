@@ -1,14 +1,14 @@
 package com.example.taskmanagement.controller;
 
+import com.example.taskmanagement.dto.TokenResponse;
 import com.example.taskmanagement.entity.User;
-import com.example.taskmanagement.jwt.JWTUtils;
+import com.example.taskmanagement.service.TokenService;
 import com.example.taskmanagement.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
@@ -18,23 +18,47 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
-    private final JWTUtils jwtUtils;
+    private final TokenService tokenService;
 
 
     @PostMapping("/register")
-    public ResponseEntity<String> register(@RequestBody User user) {
-        User registeredUser = userService.register(user);
+    public ResponseEntity<String> register(@RequestBody User user, HttpServletRequest request) {
+        User registeredUser = userService.register(user, request.getRemoteAddr());
         return ResponseEntity.ok("User registered: " + registeredUser.getEmail());
     }
 
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody Map<String, String> credentials) {
+    public ResponseEntity<TokenResponse> login(@RequestBody Map<String, String> credentials,
+                                               HttpServletRequest request) {
         String email = credentials.get("email");
         String password = credentials.get("password");
 
-        User user = userService.authenticate(email, password);
-        String token = jwtUtils.generateToken(user);
-        return ResponseEntity.ok(token);
+        return ResponseEntity.ok(tokenService.login(email, password, request.getRemoteAddr()));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@RequestBody Map<String, String> body) {
+        return ResponseEntity.ok(tokenService.refresh(body.get("refreshToken")));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody Map<String, String> body) {
+        tokenService.logout(body.get("refreshToken"));
+        return ResponseEntity.noContent().build();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/role")
+    public ResponseEntity<String> changeRole(@PathVariable Long id, @RequestParam User.Role role) {
+        User user = userService.changeRole(id, role);
+        return ResponseEntity.ok("Role changed: " + user.getEmail() + " -> " + user.getRole());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{id}/revoke")
+    public ResponseEntity<String> revokeTokens(@PathVariable Long id) {
+        User user = userService.revokeTokens(id);
+        return ResponseEntity.ok("Tokens revoked: " + user.getEmail());
     }
 
 }
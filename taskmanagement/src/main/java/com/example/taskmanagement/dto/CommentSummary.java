@@ -0,0 +1,18 @@
+package com.example.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CommentSummary {
+
+    private Long id;
+
+    private Long taskId;
+
+    private String text;
+
+    private String author;
+
+}
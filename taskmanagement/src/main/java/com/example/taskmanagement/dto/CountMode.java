@@ -0,0 +1,9 @@
+package com.example.taskmanagement.dto;
+
+/**
+ * How the total of a page is computed: an exact {@code COUNT(*)}, no count at all (only
+ * {@code hasNext} is known), or an estimate taken from the planner statistics.
+ */
+public enum CountMode {
+    EXACT, NONE, ESTIMATE
+}
@@ -0,0 +1,67 @@
+package com.example.taskmanagement.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a keyset scroll over tasks: the sort key and direction plus the sort value and id of
+ * the last row returned. Clients only see it as an opaque Base64 token.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class KeysetCursor {
+
+    public enum SortKey {
+        ID, TITLE
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final SortKey sortKey;
+
+    private final Sort.Direction direction;
+
+    private final Long lastId;
+
+    private final String lastValue;
+
+    public static KeysetCursor first(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        SortKey sortKey = switch (order.getProperty()) {
+            case "id" -> SortKey.ID;
+            case "title" -> SortKey.TITLE;
+            default -> throw new IllegalArgumentException("Cursor paging supports sorting by id or title only");
+        };
+        return new KeysetCursor(sortKey, order.getDirection(), null, null);
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 4);
+            return new KeysetCursor(SortKey.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]),
+                    Long.valueOf(parts[2]), parts[3]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public KeysetCursor after(TaskSummary last) {
+        String value = sortKey == SortKey.TITLE ? last.getTitle() : "";
+        return new KeysetCursor(sortKey, direction, last.getId(), value);
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + direction + SEPARATOR + lastId + SEPARATOR + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.taskmanagement.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+/**
+ * One change applied to many tasks at once. The tasks are selected by {@code ids}, by
+ * {@code filter}, or by both combined; at least one of them has to narrow the selection.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TaskBulkUpdate extends TaskChange {
+
+    private List<Long> ids;
+
+    private TaskFilter filter;
+
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TaskBulkUpdateResult {
+
+    private int count;
+
+    private List<Long> ids;
+
+}
@@ -0,0 +1,23 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task;
+import lombok.Data;
+
+/**
+ * Fields of a task that can be changed without loading it. Only the fields that are set are
+ * written.
+ */
+@Data
+public class TaskChange {
+
+    private Task.Status status;
+
+    private Task.Priority priority;
+
+    private Long assigneeId;
+
+    public boolean hasChanges() {
+        return status != null || priority != null || assigneeId != null;
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task;
+
+/**
+ * Number of tasks of one user with the given status and priority, as counted by the database.
+ */
+public record TaskCount(String user, Task.Status status, Task.Priority priority, long count) {
+}
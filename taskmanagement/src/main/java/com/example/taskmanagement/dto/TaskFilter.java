@@ -0,0 +1,46 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task;
+import lombok.Data;
+
+/**
+ * Criteria of the task list endpoints. All set fields are combined with AND; {@code titlePrefix}
+ * matches the beginning of the title, case-sensitively.
+ */
+@Data
+public class TaskFilter {
+
+    private Task.Status status;
+
+    private Task.Priority priority;
+
+    private Long authorId;
+
+    private Long assigneeId;
+
+    private String titlePrefix;
+
+    public static TaskFilter byAuthor(Long authorId) {
+        TaskFilter filter = new TaskFilter();
+        filter.setAuthorId(authorId);
+        return filter;
+    }
+
+    public static TaskFilter byAssignee(Long assigneeId) {
+        TaskFilter filter = new TaskFilter();
+        filter.setAssigneeId(assigneeId);
+        return filter;
+    }
+
+    public boolean isEmpty() {
+        return status == null && priority == null && authorId == null && assigneeId == null
+                && (titlePrefix == null || titlePrefix.isEmpty());
+    }
+
+    /**
+     * Pattern for {@code LIKE ... ESCAPE '\'} that matches titles starting with the prefix.
+     */
+    public String titleLikePattern() {
+        return titlePrefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * One change of a task in its audit trail: who made it, when, and the status, priority and
+ * assignee (emails) before and after. An {@code UPDATED} entry whose values did not change
+ * records an edit of the title or description.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskHistoryEntry {
+
+    private Long id;
+
+    private Long taskId;
+
+    private Long version;
+
+    private TaskChangedEvent.Type type;
+
+    private Instant changedAt;
+
+    private String changedBy;
+
+    private Task.Status status;
+
+    private Task.Status previousStatus;
+
+    private Task.Priority priority;
+
+    private Task.Priority previousPriority;
+
+    private String assignee;
+
+    private String previousAssignee;
+
+    public static TaskHistoryEntry of(TaskChangedEvent event, String changedBy, Instant changedAt) {
+        return new TaskHistoryEntry(null, event.taskId(), event.version(), event.type(), changedAt, changedBy,
+                event.status(), event.previousStatus(), event.priority(), event.previousPriority(),
+                event.assignee(), event.previousAssignee());
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One task of a bulk import. Without {@code authorId} the importing user becomes the author;
+ * comments are written on behalf of the author.
+ */
+@Data
+public class TaskImportItem {
+
+    @NotBlank(message = "Title cannot be blank")
+    @Size(max = 255, message = "Title too long")
+    private String title;
+
+    @Size(max = 500, message = "Description too long")
+    private String description;
+
+    private Task.Status status;
+
+    private Task.Priority priority;
+
+    private Long authorId;
+
+    private Long assigneeId;
+
+    private List<@NotBlank(message = "Comment cannot be blank") @Size(max = 255, message = "Comment too long") String> comments;
+
+}
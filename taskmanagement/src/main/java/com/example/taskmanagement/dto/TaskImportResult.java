@@ -0,0 +1,31 @@
+package com.example.taskmanagement.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Items are numbered from 0 in the order they were sent; every item
+ * that was not created has an entry in {@code errors}.
+ */
+@Data
+public class TaskImportResult {
+
+    private int received;
+
+    private int created;
+
+    private List<ItemError> errors = new ArrayList<>();
+
+    public int getFailed() {
+        return errors.size();
+    }
+
+    public void fail(int index, String message) {
+        errors.add(new ItemError(index, message));
+    }
+
+    public record ItemError(int index, String message) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.taskmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+
+/**
+ * {@link PagedModel} that reports the {@link CountMode} used for the page. With {@link CountMode#NONE}
+ * the totals are omitted and only {@code hasNext} is present.
+ */
+public class TaskPagedModel<T> extends PagedModel<T> {
+
+    private final PageInfo page;
+
+    public TaskPagedModel(Page<T> page, CountMode countMode) {
+        super(page);
+        boolean counted = countMode != CountMode.NONE;
+        this.page = new PageInfo(page.getSize(), page.getNumber(),
+                counted ? page.getTotalElements() : null,
+                counted ? (long) page.getTotalPages() : null,
+                page.hasNext(), countMode);
+    }
+
+    @JsonIgnore
+    @Override
+    public PageMetadata getMetadata() {
+        return super.getMetadata();
+    }
+
+    @JsonProperty("page")
+    public PageInfo getPage() {
+        return page;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PageInfo(long size, long number, Long totalElements, Long totalPages,
+                           boolean hasNext, CountMode countMode) {
+    }
+}
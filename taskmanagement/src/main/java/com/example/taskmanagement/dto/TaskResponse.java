@@ -24,6 +24,10 @@ public class TaskResponse {
 
     private String assignee;
 
+    private Integer commentCount;
+
+    private Long version;
+
     private List<String> comments;
 
 }
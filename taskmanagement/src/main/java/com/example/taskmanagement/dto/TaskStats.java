@@ -0,0 +1,25 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Task counts of one author, one assignee or of all tasks. Tasks without a status or priority
+ * are part of {@code total} only.
+ */
+@Data
+@AllArgsConstructor
+public class TaskStats {
+
+    private long total;
+
+    private Map<Task.Status, Long> byStatus;
+
+    private Map<Task.Priority, Long> byPriority;
+
+    private Map<Task.Status, Map<Task.Priority, Long>> byStatusAndPriority;
+
+}
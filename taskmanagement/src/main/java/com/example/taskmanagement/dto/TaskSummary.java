@@ -0,0 +1,35 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Read-only row of the task list queries. Built by JPQL constructor expressions, so it is never
+ * attached to the persistence context.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class TaskSummary {
+
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private Task.Status status;
+
+    private Task.Priority priority;
+
+    private String author;
+
+    private String assignee;
+
+    private int commentCount;
+
+    private long version;
+
+}
@@ -0,0 +1,10 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task;
+
+/**
+ * A task as a set-based update left it, with the status, priority and assignee it had before.
+ */
+public record TaskTransition(TaskSummary task, Task.Status previousStatus, Task.Priority previousPriority,
+                             String previousAssignee) {
+}
@@ -0,0 +1,23 @@
+package com.example.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The tokens of a login or refresh. {@code expiresIn} is the lifetime of the access token in
+ * seconds; the refresh token is sent to {@code /api/user/refresh} for the next pair and is
+ * refused once used.
+ */
+@Data
+@AllArgsConstructor
+public class TokenResponse {
+
+    private String accessToken;
+
+    private String refreshToken;
+
+    private String tokenType;
+
+    private long expiresIn;
+
+}
@@ -0,0 +1,31 @@
+package com.example.taskmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A login of a user, kept for the lifetime of its refresh tokens. Only the refresh token of the
+ * current {@code generation} is accepted.
+ */
+@Entity
+@Data
+public class RefreshSession {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private int generation;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    private Instant revokedAt;
+}
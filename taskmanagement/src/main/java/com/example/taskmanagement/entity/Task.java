@@ -4,6 +4,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -12,7 +16,8 @@ import java.util.List;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Title cannot be null")
@@ -33,9 +38,29 @@ public class Task {
     @ManyToOne
     private User assignee;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL)
     private List<Comment> comments;
 
+    /**
+     * Written on insert and afterwards maintained by {@code TaskRepository.incrementCommentCount},
+     * never by entity updates.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private int commentCount;
+
+    /**
+     * Incremented by every change, including the set-based updates of {@code TaskRepository};
+     * exposed to clients as the ETag of the task.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     public enum Status {
         WAITING, IN_PROGRESS, COMPLETED
     }
@@ -0,0 +1,88 @@
+package com.example.taskmanagement.event;
+
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.dto.TaskTransition;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Published by {@code TaskService} after a task was created, changed, commented or deleted.
+ * Carries only what a client needs to decide whether to reload the task; {@code author} and
+ * {@code assignee} are emails. The {@code previous*} fields hold the state the change replaced,
+ * they are empty for a new task. {@code audited} marks a change whose audit entry was written
+ * along with it, it is not sent to clients.
+ */
+public record TaskChangedEvent(Type type, long taskId, long version, Task.Status status, Task.Priority priority,
+                               String author, String assignee, Task.Status previousStatus,
+                               Task.Priority previousPriority, String previousAssignee,
+                               @JsonIgnore boolean audited) {
+
+    public enum Type {
+        CREATED, UPDATED, COMMENTED, DELETED
+    }
+
+    public TaskChangedEvent(Type type, long taskId, long version, Task.Status status, Task.Priority priority,
+                            String author, String assignee, Task.Status previousStatus,
+                            Task.Priority previousPriority, String previousAssignee) {
+        this(type, taskId, version, status, priority, author, assignee, previousStatus, previousPriority,
+                previousAssignee, false);
+    }
+
+    public static TaskChangedEvent created(Task task) {
+        return new TaskChangedEvent(Type.CREATED, task.getId(), task.getVersion(), task.getStatus(),
+                task.getPriority(), email(task.getAuthor()), email(task.getAssignee()), null, null, null);
+    }
+
+    public static TaskChangedEvent updated(Task task, Task.Status previousStatus, Task.Priority previousPriority,
+                                           String previousAssignee) {
+        return new TaskChangedEvent(Type.UPDATED, task.getId(), task.getVersion(), task.getStatus(),
+                task.getPriority(), email(task.getAuthor()), email(task.getAssignee()), previousStatus,
+                previousPriority, previousAssignee);
+    }
+
+    public static TaskChangedEvent updated(TaskTransition transition) {
+        TaskSummary task = transition.task();
+        return new TaskChangedEvent(Type.UPDATED, task.getId(), task.getVersion(), task.getStatus(),
+                task.getPriority(), task.getAuthor(), task.getAssignee(), transition.previousStatus(),
+                transition.previousPriority(), transition.previousAssignee());
+    }
+
+    /**
+     * A task changed by a bulk update, which has recorded the audit entry itself.
+     */
+    public static TaskChangedEvent bulkUpdated(TaskTransition transition) {
+        TaskSummary task = transition.task();
+        return new TaskChangedEvent(Type.UPDATED, task.getId(), task.getVersion(), task.getStatus(),
+                task.getPriority(), task.getAuthor(), task.getAssignee(), transition.previousStatus(),
+                transition.previousPriority(), transition.previousAssignee(), true);
+    }
+
+    public static TaskChangedEvent commented(Task task, long version) {
+        return unchanged(Type.COMMENTED, task, version);
+    }
+
+    public static TaskChangedEvent deleted(Task task) {
+        return unchanged(Type.DELETED, task, task.getVersion());
+    }
+
+    /**
+     * Of two events about the same task, the one that describes the later state.
+     */
+    static TaskChangedEvent latest(TaskChangedEvent a, TaskChangedEvent b) {
+        if (a.type == Type.DELETED) {
+            return a;
+        }
+        return b.type == Type.DELETED || b.version >= a.version ? b : a;
+    }
+
+    private static TaskChangedEvent unchanged(Type type, Task task, long version) {
+        String assignee = email(task.getAssignee());
+        return new TaskChangedEvent(type, task.getId(), version, task.getStatus(), task.getPriority(),
+                email(task.getAuthor()), assignee, task.getStatus(), task.getPriority(), assignee);
+    }
+
+    private static String email(User user) {
+        return user != null ? user.getEmail() : null;
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.taskmanagement.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers {@link TaskChangedEvent}s to Server-Sent Events subscribers. A subscriber receives
+ * the events of tasks it authored or is (or was, until this change) assigned to.
+ * <p>
+ * Publishing never blocks: an event is put into the pending map of each interested subscriber,
+ * keyed by task id, so a newer event about the same task replaces an unsent older one. The
+ * pending events are written by {@code app.events.dispatch-threads} dispatcher threads, at most
+ * one at a time per subscriber. A subscriber that falls behind by more than
+ * {@code app.events.max-pending} tasks loses the surplus events and gets a {@code RESYNC} event
+ * instead, telling the client to reload its lists. Connections are held by the servlet
+ * container asynchronously, so idle subscribers cost no threads.
+ * <p>
+ * Writing to a client blocks its dispatcher thread, so slow clients are let go: after
+ * {@code app.events.max-slow-sends} writes in a row that each took longer than
+ * {@code app.events.slow-send}, the subscriber is treated as overflowed, gets {@code RESYNC}
+ * and its stream is closed. A write still blocked after {@code max-slow-sends} times
+ * {@code slow-send} closes the stream at once, so a stalled client can't keep a dispatcher.
+ */
+@Slf4j
+@Component
+public class TaskEventBus {
+
+    static final String RESYNC = "RESYNC";
+
+    private final ConcurrentMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final long timeoutMillis;
+    private final LongAdder slowSubscribers = new LongAdder();
+    private final int maxPending;
+    private final long slowSendNanos;
+    private final int maxSlowSends;
+    private final Executor dispatcher;
+
+    @Autowired
+    public TaskEventBus(@Value("${app.events.timeout:30m}") Duration timeout,
+                        @Value("${app.events.max-pending:256}") int maxPending,
+                        @Value("${app.events.slow-send:1s}") Duration slowSend,
+                        @Value("${app.events.max-slow-sends:3}") int maxSlowSends,
+                        @Value("${app.events.dispatch-threads:4}") int dispatchThreads) {
+        this(timeout, maxPending, slowSend, maxSlowSends, dispatcher(dispatchThreads));
+    }
+
+    TaskEventBus(Duration timeout, int maxPending, Duration slowSend, int maxSlowSends, Executor dispatcher) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxPending = maxPending;
+        this.slowSendNanos = slowSend.toNanos();
+        this.maxSlowSends = maxSlowSends;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Opens a stream of the events relevant to the user. It ends after {@code app.events.timeout},
+     * and EventSource clients reconnect by themselves.
+     */
+    public SseEmitter subscribe(String email) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(email, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscribers.computeIfAbsent(email, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        // sends the response headers right away
+        subscriber.heartbeat();
+        return emitter;
+    }
+
+    /**
+     * Runs after the transaction that changed the task has committed, or immediately when there
+     * is none, so subscribers never hear about a change that was rolled back.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(TaskChangedEvent event) {
+        offer(event.author(), event);
+        if (event.assignee() != null && !event.assignee().equals(event.author())) {
+            offer(event.assignee(), event);
+        }
+        // a reassigned task is announced to the user who lost it as well
+        if (event.previousAssignee() != null && !event.previousAssignee().equals(event.author())
+                && !event.previousAssignee().equals(event.assignee())) {
+            offer(event.previousAssignee(), event);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    /**
+     * Streams closed because the client read too slowly.
+     */
+    public long getSlowSubscribers() {
+        return slowSubscribers.sum();
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds the clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval:30000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::heartbeat));
+    }
+
+    /**
+     * Closes the streams whose current write has been blocked for longer than
+     * {@code max-slow-sends} slow writes would take.
+     */
+    @Scheduled(fixedDelayString = "${app.events.stall-check-interval:1000}")
+    public void closeStalledStreams() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.closeIfStalled(now)));
+    }
+
+    /**
+     * Ends the open streams as soon as shutdown begins; otherwise they would hold up the graceful
+     * shutdown of the web server until it times out.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void close() {
+        if (dispatcher instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+        subscribers.values().forEach(set -> set.forEach(Subscriber::complete));
+    }
+
+    private static ExecutorService dispatcher(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "task-events-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void offer(String email, TaskChangedEvent event) {
+        if (email == null) {
+            return;
+        }
+        Set<Subscriber> set = subscribers.get(email);
+        if (set != null) {
+            set.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.email, (email, set) -> {
+            if (set.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final String email;
+        private final SseEmitter emitter;
+        private final ConcurrentMap<Long, TaskChangedEvent> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean stalled = new AtomicBoolean();
+        private volatile boolean closed;
+        /**
+         * When the write in progress started, 0 when there is none.
+         */
+        private volatile long sendStarted;
+        /**
+         * Slow writes in a row; only touched by the thread draining this subscriber.
+         */
+        private int slowSends;
+
+        private Subscriber(String email, SseEmitter emitter) {
+            this.email = email;
+            this.emitter = emitter;
+        }
+
+        void offer(TaskChangedEvent event) {
+            if (pending.size() >= maxPending && !pending.containsKey(event.taskId())) {
+                droppedEvents.increment();
+                overflowed.set(true);
+            } else {
+                pending.merge(event.taskId(), event, TaskChangedEvent::latest);
+            }
+            schedule();
+        }
+
+        void heartbeat() {
+            heartbeatDue.set(true);
+            schedule();
+        }
+
+        void close() {
+            closed = true;
+            pending.clear();
+            remove(this);
+        }
+
+        void complete() {
+            close();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // the response has been completed already
+            }
+        }
+
+        void closeIfStalled(long now) {
+            long started = sendStarted;
+            if (started != 0 && now - started > slowSendNanos * maxSlowSends && stalled.compareAndSet(false, true)) {
+                log.debug("Closing event stream of {}: a write is blocked", email);
+                if (!closed) {
+                    slowSubscribers.increment();
+                }
+                close();
+                try {
+                    // the container closes the connection, which fails the blocked write
+                    emitter.completeWithError(new IOException("Event stream stalled"));
+                } catch (IllegalStateException e) {
+                    // the response has been completed already
+                }
+            }
+        }
+
+        private void schedule() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (overflowed.getAndSet(false)) {
+                    send(SseEmitter.event().name(RESYNC).data("{}", MediaType.APPLICATION_JSON));
+                }
+                for (Long taskId : pending.keySet()) {
+                    TaskChangedEvent event = pending.remove(taskId);
+                    if (event != null && !closed) {
+                        send(SseEmitter.event().name(event.type().name()).data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+                if (heartbeatDue.getAndSet(false)) {
+                    send(SseEmitter.event().comment(""));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client disconnected or the emitter has already completed
+                log.debug("Closing event stream of {}: {}", email, e.getMessage());
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                scheduled.set(false);
+            }
+            if (!pending.isEmpty() || overflowed.get() || heartbeatDue.get()) {
+                schedule();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            if (closed) {
+                return;
+            }
+            long started = write(event);
+            slowSends = System.nanoTime() - started >= slowSendNanos ? slowSends + 1 : 0;
+            if (slowSends < maxSlowSends) {
+                return;
+            }
+
+            log.debug("Closing event stream of {}: {} slow writes in a row", email, slowSends);
+            slowSubscribers.increment();
+            closed = true;
+            droppedEvents.add(pending.size());
+            pending.clear();
+            // the client reconnects and has to reload what it missed; until this write is done the
+            // subscriber stays registered, so closeStalledStreams still sees it if it blocks
+            write(SseEmitter.event().name(RESYNC).data("{}", MediaType.APPLICATION_JSON));
+            close();
+            emitter.complete();
+        }
+
+        /**
+         * Returns when the write started.
+         */
+        private long write(SseEmitter.SseEventBuilder event) throws IOException {
+            long started = System.nanoTime();
+            sendStarted = started != 0 ? started : 1;
+            try {
+                emitter.send(event);
+            } finally {
+                sendStarted = 0;
+            }
+            return started;
+        }
+    }
+}
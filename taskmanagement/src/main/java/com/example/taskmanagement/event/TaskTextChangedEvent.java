@@ -0,0 +1,20 @@
+package com.example.taskmanagement.event;
+
+import com.example.taskmanagement.entity.Comment;
+import com.example.taskmanagement.entity.Task;
+
+/**
+ * Published when text covered by full-text search was written: the title and description of a
+ * task, or a new comment, in which case {@code commentId} and {@code comment} are set and the
+ * task fields are empty. Carries the text, so the index does not read it back.
+ */
+public record TaskTextChangedEvent(long taskId, String title, String description, Long commentId, String comment) {
+
+    public static TaskTextChangedEvent of(Task task) {
+        return new TaskTextChangedEvent(task.getId(), task.getTitle(), task.getDescription(), null, null);
+    }
+
+    public static TaskTextChangedEvent of(Comment comment) {
+        return new TaskTextChangedEvent(comment.getTask().getId(), null, null, comment.getId(), comment.getText());
+    }
+}
@@ -2,64 +2,172 @@ package com.example.taskmanagement.jwt;
 
 import com.example.taskmanagement.entity.User;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
+/**
+ * Issues and verifies the tokens: short-lived access tokens ({@code app.jwt.access-ttl}) sent with
+ * every request, and refresh tokens, which are only accepted by the refresh endpoint and carry the
+ * generation of their refresh session. Both carry the session id ({@code sid}) once issued for a login.
+ */
 @Slf4j
-@RequiredArgsConstructor
 @Component
 public class JWTUtils {
 
     private static final String SECRET_KEY = "SecretKey1234567890hbhjdbfjhbfhjbfosdhfbo48rhiufnbcdsuh834urfbjhrbnvf";
-    private static final long EXPIRATION_TIME = 86400000;
+    private static final Duration DEFAULT_ACCESS_TTL = Duration.ofMinutes(15);
+    private static final String REFRESH_TYPE = "refresh";
     private static final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private static final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
 
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+    public static final String SESSION_CLAIM = "sid";
+    public static final String GENERATION_CLAIM = "gen";
+    public static final String TYPE_CLAIM = "typ";
 
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Duration accessTtl;
+
+    @Autowired
+    public JWTUtils(VerifiedTokenCache verifiedTokenCache, @Value("${app.jwt.access-ttl:15m}") Duration accessTtl) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.accessTtl = accessTtl;
+    }
+
+    public JWTUtils(VerifiedTokenCache verifiedTokenCache) {
+        this(verifiedTokenCache, DEFAULT_ACCESS_TTL);
+    }
+
+
+    /**
+     * An access token that belongs to no refresh session.
+     */
     public String generateToken(User user) {
+        return generateAccessToken(user, null);
+    }
+
+    public String generateAccessToken(User user, UUID sessionId) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setSubject(user.getEmail())
-                .claim("role", user.getRole().name())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(SignatureAlgorithm.HS256, key)
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
+                .claim(SESSION_CLAIM, sessionId != null ? sessionId.toString() : null)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTtl.toMillis()))
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    public String generateRefreshToken(User user, UUID sessionId, int generation, Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
+                .claim(SESSION_CLAIM, sessionId.toString())
+                .claim(GENERATION_CLAIM, generation)
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiresAt))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public Duration getAccessTtl() {
+        return accessTtl;
+    }
+
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = verifiedTokenCache.get(token);
+        if (claims != null) {
+            return claims;
+        }
+        claims = parser.parseClaimsJws(token).getBody();
+        verifiedTokenCache.put(token, claims);
+        return claims;
+    }
 
+    /**
+     * Returns the claims of a valid token, or {@code null} if the signature or expiration check fails.
+     * Each token is verified once and then served from {@link VerifiedTokenCache} until it expires.
+     */
+    public Claims verify(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token is invalid: {}", e.getMessage());
+            return null;
+        }
     }
 
     public boolean isTokenValid(String token) {
+        return verify(token) != null;
+    }
+
+    /**
+     * Returns the claims of a valid refresh token, or {@code null}. Refresh tokens are used once,
+     * so they are not cached.
+     */
+    public Claims verifyRefreshToken(String token) {
         try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return isRefreshToken(claims) && sessionId(claims) != null ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Refresh token is invalid: {}", e.getMessage());
+            return null;
+        }
+    }
 
-            Jws<Claims> claims = Jwts.parser()
-                    .setSigningKey(key)
-                    .parseClaimsJws(token);
+    public static boolean isRefreshToken(Claims claims) {
+        return REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class));
+    }
 
-            Claims tokenClaims = claims.getBody();
+    /**
+     * The refresh session of the token, {@code null} for tokens issued outside of one.
+     */
+    public static UUID sessionId(Claims claims) {
+        String sessionId = claims.get(SESSION_CLAIM, String.class);
+        try {
+            return sessionId != null ? UUID.fromString(sessionId) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-            Date expirationDate = tokenClaims.getExpiration();
-            if (expirationDate != null && expirationDate.before(new Date())) {
-                return false;
-            }
-            log.info("Token is Valid " + extractAllClaims(token).getSubject());
-            return true;
-        } catch (Exception e) {
-            return false;
+    /**
+     * Rebuilds the user from the token claims, or returns {@code null} for tokens issued before
+     * the user id and token version were added to the claims.
+     */
+    public User extractUser(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || tokenVersion == null || role == null) {
+            return null;
         }
+
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(claims.getSubject());
+        user.setRole(User.Role.valueOf(role));
+        user.setTokenVersion(tokenVersion);
+        return user;
     }
 
-}
\ No newline at end of file
+}
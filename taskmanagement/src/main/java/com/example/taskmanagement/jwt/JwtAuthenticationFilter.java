@@ -1,13 +1,19 @@
 package com.example.taskmanagement.jwt;
 
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.security.TokenRevocationRegistry;
+import com.example.taskmanagement.security.TokenVersionRegistry;
 import com.example.taskmanagement.security.UserDetailedService;
+import com.example.taskmanagement.security.UserPrincipal;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,14 +22,36 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
-@AllArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JWTUtils jwtUtils;
     private final UserDetailedService userDetailedService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final Timer verificationTimer;
+    private final Timer userLookupTimer;
+
+    @Value("${app.security.stateless-auth:false}")
+    private boolean statelessAuth;
+
+    public JwtAuthenticationFilter(JWTUtils jwtUtils, UserDetailedService userDetailedService,
+                                   TokenVersionRegistry tokenVersionRegistry,
+                                   TokenRevocationRegistry tokenRevocationRegistry, MeterRegistry meterRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailedService = userDetailedService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.verificationTimer = Timer.builder("auth.jwt.verification")
+                .description("Time to verify the bearer token of a request")
+                .register(meterRegistry);
+        this.userLookupTimer = Timer.builder("auth.user.lookup")
+                .description("Time to resolve the user of a verified token")
+                .register(meterRegistry);
+    }
 
 
     @Override
@@ -39,9 +67,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (!response.isCommitted()) {
                 try {
-                    log.info("Before doFilter");
                     filterChain.doFilter(request, response);
-                    log.info("After doFilter");
                 } catch (Exception e) {
                     log.error("Error in filter chain", e);
                     throw e;
@@ -60,11 +86,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                if (jwtUtils.isTokenValid(token)) {
-                    Claims claims = jwtUtils.extractAllClaims(token);
+                Claims claims = verificationTimer.record(() -> jwtUtils.verify(token));
+                // a refresh token only opens the refresh endpoint, which does not need authentication
+                if (claims != null && !JWTUtils.isRefreshToken(claims)) {
                     String email = claims.getSubject();
 
-                    UserDetails userDetails = userDetailedService.loadUserByUsername(email);
+                    UserDetails userDetails = userLookupTimer.record(() -> loadUserDetails(claims));
+                    if (userDetails == null) {
+                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                        response.getWriter().write("Unauthorized: Token has been revoked");
+                        return;
+                    }
 
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -73,7 +105,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                    log.info("User authenticated: " + email);
+                    log.debug("User authenticated: {}", email);
 
                 }
             }
@@ -87,5 +119,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * In stateless mode the principal is built from the token claims and only the token version is
+     * checked against {@link TokenVersionRegistry}; otherwise the user is loaded from the database.
+     * Returns {@code null} when the token version is no longer current or its session was revoked.
+     */
+    private UserDetails loadUserDetails(Claims claims) {
+        UUID sessionId = JWTUtils.sessionId(claims);
+        if (sessionId != null && tokenRevocationRegistry.isRevoked(sessionId)) {
+            return null;
+        }
+        User tokenUser = jwtUtils.extractUser(claims);
+
+        if (statelessAuth && tokenUser != null) {
+            return tokenVersionRegistry.isCurrent(tokenUser.getId(), tokenUser.getTokenVersion())
+                    ? new UserPrincipal(tokenUser)
+                    : null;
+        }
+
+        UserPrincipal userPrincipal = userDetailedService.loadUserByUsername(claims.getSubject());
+        if (tokenUser != null && tokenUser.getTokenVersion() != userPrincipal.getUser().getTokenVersion()) {
+            return null;
+        }
+        return userPrincipal;
+    }
+
 
-}
\ No newline at end of file
+}
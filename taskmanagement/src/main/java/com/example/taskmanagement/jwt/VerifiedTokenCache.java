@@ -0,0 +1,126 @@
+package com.example.taskmanagement.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of already verified tokens. Entries are keyed by the SHA-256 digest of the token,
+ * so raw tokens are never kept in memory, and live exactly until the token expires.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${app.jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Claims get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims();
+    }
+
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired();
+            evictOverflow();
+        }
+        entries.put(digest(token), new Entry(claims, expiration.getTime()));
+    }
+
+    public void invalidate(String token) {
+        if (entries.remove(digest(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.cache.sweep-interval:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> {
+            if (e.getValue().isExpired(now)) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
@@ -1,20 +1,31 @@
 package com.example.taskmanagement.mapper;
 
+import com.example.taskmanagement.dto.CommentSummary;
 import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.dto.TaskSummary;
 import com.example.taskmanagement.entity.Comment;
 import com.example.taskmanagement.entity.Task;
-import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
-@AllArgsConstructor
 public class TaskMapper {
 
+    /**
+     * Number of latest comments embedded into a {@link TaskResponse}; the rest is available
+     * through the comments endpoint.
+     */
+    @Getter
+    @Value("${app.tasks.comment-preview-size:3}")
+    private int commentPreviewSize = 3;
+
     public TaskResponse fromTask(Task task) {
 
         String assignee = (task.getAssignee() != null) ? task.getAssignee().getEmail() : "";
@@ -27,18 +38,45 @@ public class TaskMapper {
         taskResponse.setPriority(task.getPriority());
         taskResponse.setAuthor(task.getAuthor().getEmail());
         taskResponse.setAssignee(assignee);
-        taskResponse.setComments(task.getComments().stream().map(Comment::getText).collect(Collectors.toList()));
+        List<Comment> comments = (task.getComments() != null) ? task.getComments() : List.of();
+        taskResponse.setCommentCount(comments.size());
+        taskResponse.setVersion(task.getVersion());
+        taskResponse.setComments(comments.subList(Math.max(0, comments.size() - commentPreviewSize), comments.size())
+                .stream().map(Comment::getText).collect(Collectors.toList()));
 
         return taskResponse;
 
     }
 
-    public Page<TaskResponse> fromAll(Page<Task> tasks) {
-        List<TaskResponse> taskResponses = tasks.stream()
-                .map(this::fromTask)
-                .collect(Collectors.toList());
+    public TaskResponse fromSummary(TaskSummary summary, List<String> comments) {
+        TaskResponse taskResponse = new TaskResponse();
+        taskResponse.setId(summary.getId());
+        taskResponse.setTitle(summary.getTitle());
+        taskResponse.setDescription(summary.getDescription());
+        taskResponse.setStatus(summary.getStatus());
+        taskResponse.setPriority(summary.getPriority());
+        taskResponse.setAuthor(summary.getAuthor());
+        taskResponse.setAssignee(summary.getAssignee() != null ? summary.getAssignee() : "");
+        taskResponse.setCommentCount(summary.getCommentCount());
+        taskResponse.setVersion(summary.getVersion());
+        taskResponse.setComments(comments);
+
+        return taskResponse;
+    }
+
+    public Page<TaskResponse> fromSummaries(Page<TaskSummary> summaries, List<CommentSummary> comments) {
+        return new PageImpl<>(fromSummaries(summaries.getContent(), comments),
+                summaries.getPageable(), summaries.getTotalElements());
+    }
 
-        return new PageImpl<>(taskResponses, tasks.getPageable(), tasks.getTotalElements());
+    public List<TaskResponse> fromSummaries(List<TaskSummary> summaries, List<CommentSummary> comments) {
+        Map<Long, List<String>> commentsByTask = comments.stream()
+                .collect(Collectors.groupingBy(CommentSummary::getTaskId,
+                        Collectors.mapping(CommentSummary::getText, Collectors.toList())));
+
+        return summaries.stream()
+                .map(summary -> fromSummary(summary, commentsByTask.getOrDefault(summary.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 
 }
@@ -0,0 +1,113 @@
+package com.example.taskmanagement.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records per route how many SQL statements and entity loads a request caused
+ * ({@code http.server.requests.statements}, {@code http.server.requests.entity.loads}), and
+ * flags requests over the route's statement budget with a warning and the
+ * {@code http.server.requests.over.budget} counter. The budget is
+ * {@code app.metrics.query-budget.default}, or the {@code app.metrics.query-budget.endpoints}
+ * entry of the route, keyed like {@code "[GET /api/tasks/{id}]"}.
+ * <p>
+ * Runs before the security filters so that the user lookup of the authentication is counted too.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+    private final ConcurrentMap<String, RouteMeters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RequestMetricsFilter(MeterRegistry meterRegistry, Environment environment,
+                                @Value("${app.metrics.query-budget.default:20}") int defaultBudget) {
+        this(meterRegistry, defaultBudget, Binder.get(environment)
+                .bind("app.metrics.query-budget.endpoints", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of()));
+    }
+
+    RequestMetricsFilter(MeterRegistry meterRegistry, int defaultBudget, Map<String, Integer> budgets) {
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = defaultBudget;
+        this.budgets = budgets;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatistics.end();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = request.getMethod() + " " + (pattern != null ? pattern : UNKNOWN_ROUTE);
+        RouteMeters routeMeters = meters.computeIfAbsent(route,
+                key -> new RouteMeters(request.getMethod(), pattern != null ? pattern.toString() : UNKNOWN_ROUTE));
+
+        routeMeters.statements.record(statistics.getStatements());
+        routeMeters.entityLoads.record(statistics.getEntityLoads());
+        if (statistics.getStatements() > routeMeters.budget) {
+            routeMeters.overBudget.increment();
+            log.warn("{} ran {} SQL statements and loaded {} entities, budget is {} statements",
+                    route, statistics.getStatements(), statistics.getEntityLoads(), routeMeters.budget);
+        }
+    }
+
+    private final class RouteMeters {
+
+        private final DistributionSummary statements;
+        private final DistributionSummary entityLoads;
+        private final Counter overBudget;
+        private final int budget;
+
+        private RouteMeters(String method, String uri) {
+            statements = DistributionSummary.builder("http.server.requests.statements")
+                    .description("SQL statements prepared by Hibernate per request")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry);
+            entityLoads = DistributionSummary.builder("http.server.requests.entity.loads")
+                    .description("Entities loaded by Hibernate per request")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry);
+            overBudget = Counter.builder("http.server.requests.over.budget")
+                    .description("Requests that ran more SQL statements than their budget")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry);
+            budget = budgets.getOrDefault(method + " " + uri, defaultBudget);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.taskmanagement.metrics;
+
+/**
+ * Counts of the work done by Hibernate for the request on the current thread: SQL statements
+ * prepared and entities loaded. Collected between {@link #start()} and {@link #end()} by
+ * {@link RequestMetricsFilter}; outside of a request the counting methods do nothing.
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int entityLoads;
+
+    private RequestStatistics() {
+    }
+
+    static RequestStatistics start() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static void statementPrepared() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    public static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+}
@@ -1,7 +1,34 @@
 package com.example.taskmanagement.repository;
 
+import com.example.taskmanagement.dto.CommentSummary;
 import com.example.taskmanagement.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    String SUMMARY_SELECT = "select new com.example.taskmanagement.dto.CommentSummary(c.id, c.task.id, c.text, a.email) "
+            + "from Comment c left join c.author a";
+
+    @Query(SUMMARY_SELECT + " where c.task.id in :taskIds order by c.id")
+    List<CommentSummary> findSummariesByTaskIds(Collection<Long> taskIds);
+
+    @Query(SUMMARY_SELECT + " where c.task.id = :taskId and c.id > :afterId order by c.id")
+    List<CommentSummary> findSummariesAfter(Long taskId, Long afterId, Limit limit);
+
+    /**
+     * Latest {@code limit} comments of every task, read with one index range scan per task.
+     */
+    @Query(value = "select c.id as id, t.id as task_id, c.text as text, u.email as author "
+            + "from task t cross join lateral ("
+            + "select c.id, c.text, c.author_id from comment c "
+            + "where c.task_id = t.id order by c.id desc limit :limit) c "
+            + "left join \"user\" u on u.id = c.author_id "
+            + "where t.id in :taskIds order by c.id",
+            nativeQuery = true)
+    List<CommentSummary> findPreviewsByTaskIds(Collection<Long> taskIds, int limit);
 }
@@ -0,0 +1,37 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.entity.RefreshSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface RefreshSessionRepository extends JpaRepository<RefreshSession, UUID> {
+
+    /**
+     * Moves a live session from {@code generation} to the next one; returns {@code 0} if the
+     * session is not at that generation any more, or is revoked or expired.
+     */
+    @Transactional
+    @Modifying
+    @Query("update RefreshSession s set s.generation = s.generation + 1 "
+            + "where s.id = :id and s.generation = :generation and s.revokedAt is null and s.expiresAt > :now")
+    int rotate(UUID id, int generation, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshSession s set s.revokedAt = :now where s.id = :id and s.revokedAt is null")
+    int revoke(UUID id, Instant now);
+
+    @Query("select s.id from RefreshSession s where s.revokedAt > :since")
+    List<UUID> findRevokedSince(Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshSession s where s.expiresAt <= :now or s.revokedAt <= :revokedBefore")
+    int deleteEnded(Instant now, Instant revokedBefore);
+}
@@ -0,0 +1,87 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.dto.TaskHistoryEntry;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * The {@code task_audit} table. Rows are only ever inserted, in JDBC batches.
+ */
+@Repository
+public class TaskAuditRepository {
+
+    private static final String INSERT = "insert into task_audit (task_id, task_version, type, changed_at, changed_by, "
+            + "status, previous_status, priority, previous_priority, assignee, previous_assignee) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Records the rows of the {@code changed} query of a bulk update, within the update statement.
+     */
+    static final String INSERT_CHANGED = "insert into task_audit (task_id, task_version, type, changed_at, "
+            + "changed_by, status, previous_status, priority, previous_priority, assignee, previous_assignee) "
+            + "select id, version, 'UPDATED', now(), :changedBy, status, old_status, priority, old_priority, "
+            + "assignee, old_assignee from changed";
+
+    private static final RowMapper<TaskHistoryEntry> ROW_MAPPER = (rs, rowNum) -> new TaskHistoryEntry(
+            rs.getLong("id"), rs.getLong("task_id"), rs.getLong("task_version"),
+            TaskChangedEvent.Type.valueOf(rs.getString("type")), rs.getTimestamp("changed_at").toInstant(),
+            rs.getString("changed_by"),
+            enumOf(Task.Status.class, rs.getString("status")),
+            enumOf(Task.Status.class, rs.getString("previous_status")),
+            enumOf(Task.Priority.class, rs.getString("priority")),
+            enumOf(Task.Priority.class, rs.getString("previous_priority")),
+            rs.getString("assignee"), rs.getString("previous_assignee"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskAuditRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<TaskHistoryEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getTaskId());
+            ps.setLong(2, entry.getVersion());
+            ps.setString(3, entry.getType().name());
+            ps.setTimestamp(4, Timestamp.from(entry.getChangedAt()));
+            ps.setString(5, entry.getChangedBy());
+            ps.setString(6, name(entry.getStatus()));
+            ps.setString(7, name(entry.getPreviousStatus()));
+            ps.setString(8, name(entry.getPriority()));
+            ps.setString(9, name(entry.getPreviousPriority()));
+            ps.setString(10, entry.getAssignee());
+            ps.setString(11, entry.getPreviousAssignee());
+        });
+    }
+
+    /**
+     * Entries of the task after the one with id {@code afterId}, oldest first. They are ordered by
+     * the task version they recorded and then by id: ids follow the order of insertion, which is
+     * not the order of the changes, because single changes are written up to a flush interval
+     * later while bulk updates write theirs within the update.
+     */
+    public List<TaskHistoryEntry> findAfter(long taskId, long afterId, int limit) {
+        if (afterId == 0) {
+            return jdbcTemplate.query("select * from task_audit where task_id = ? order by task_version, id limit ?",
+                    ROW_MAPPER, taskId, limit);
+        }
+        return jdbcTemplate.query("select * from task_audit where task_id = ? and (task_version, id) > "
+                        + "(select a.task_version, a.id from task_audit a where a.id = ?) "
+                        + "order by task_version, id limit ?",
+                ROW_MAPPER, taskId, afterId, limit);
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static <E extends Enum<E>> E enumOf(Class<E> type, String name) {
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+}
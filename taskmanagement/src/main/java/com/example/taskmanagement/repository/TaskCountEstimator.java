@@ -0,0 +1,109 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.dto.TaskFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cheap row count estimates for the task table taken from PostgreSQL planner statistics:
+ * {@code pg_class.reltuples} for the whole table and the planner's row estimate for filtered
+ * queries. Estimates are cached per filter for {@code app.tasks.count-estimate-ttl}.
+ */
+@Slf4j
+@Repository
+public class TaskCountEstimator {
+
+    private static final int MAX_CACHED_ESTIMATES = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final Map<String, Estimate> estimates = new ConcurrentHashMap<>();
+
+    public TaskCountEstimator(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              @Value("${app.tasks.count-estimate-ttl:60s}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Returns the estimated number of tasks, or {@code -1} if no estimate is available
+     * (table never analyzed, or the database is not PostgreSQL).
+     */
+    public long estimateAll() {
+        return cached("all", () -> {
+            Long reltuples = jdbcTemplate.queryForObject(
+                    "select reltuples::bigint from pg_class where oid = to_regclass('task')", Long.class);
+            return reltuples != null ? reltuples : -1;
+        });
+    }
+
+    public long estimate(TaskFilter filter) {
+        if (filter.isEmpty()) {
+            return estimateAll();
+        }
+        return cached(filter.toString(), () -> {
+            JsonNode rows = objectMapper.readTree(explain(filter)).path(0).path("Plan").path("Plan Rows");
+            return rows.isNumber() ? rows.asLong() : -1;
+        });
+    }
+
+    /**
+     * Returns the JSON query plan of selecting the tasks that match the filter, with the
+     * predicates the repository queries use.
+     */
+    public String explain(TaskFilter filter) {
+        TaskRepositoryImpl.Where where = TaskRepositoryImpl.Where.nativeOf(filter);
+        return namedParameterJdbcTemplate.queryForObject("explain (format json) select 1 from task" + where.clause(),
+                where.parameters, String.class);
+    }
+
+    private long cached(String key, EstimateLoader loader) {
+        long now = System.currentTimeMillis();
+        Estimate estimate = estimates.get(key);
+        if (estimate != null && now - estimate.computedAt() < ttlMillis) {
+            return estimate.value();
+        }
+
+        long value;
+        try {
+            value = loader.load();
+        } catch (DataAccessException e) {
+            log.debug("Count estimate is not available: {}", e.getMessage());
+            value = -1;
+        } catch (Exception e) {
+            log.warn("Could not read count estimate", e);
+            value = -1;
+        }
+
+        if (estimates.size() >= MAX_CACHED_ESTIMATES) {
+            estimates.entrySet().removeIf(e -> now - e.getValue().computedAt() >= ttlMillis);
+            if (estimates.size() >= MAX_CACHED_ESTIMATES) {
+                estimates.clear();
+            }
+        }
+        estimates.put(key, new Estimate(value, now));
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface EstimateLoader {
+        long load() throws Exception;
+    }
+
+    private record Estimate(long value, long computedAt) {
+    }
+}
@@ -1,12 +1,39 @@
 package com.example.taskmanagement.repository;
 
+import com.example.taskmanagement.dto.TaskCount;
+import com.example.taskmanagement.dto.TaskSummary;
 import com.example.taskmanagement.entity.Task;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    Page<Task> findByAuthorId(Long authorId, Pageable pageable);
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-    Page<Task> findByAssigneeId(Long assigneeId, Pageable pageable);
-}
\ No newline at end of file
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    String SUMMARY_SELECT = "select new com.example.taskmanagement.dto.TaskSummary("
+            + "t.id, t.title, t.description, t.status, t.priority, a.email, s.email, t.commentCount, t.version) "
+            + "from Task t left join t.author a left join t.assignee s";
+
+    @Query(SUMMARY_SELECT + " where t.id in :ids")
+    List<TaskSummary> findSummariesByIds(Collection<Long> ids);
+
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("select new com.example.taskmanagement.dto.TaskCount(s.email, t.status, t.priority, count(t)) "
+            + "from Task t join t.assignee s group by s.email, t.status, t.priority")
+    List<TaskCount> countByAssignee();
+
+    @Query("select new com.example.taskmanagement.dto.TaskCount(a.email, t.status, t.priority, count(t)) "
+            + "from Task t left join t.author a group by a.email, t.status, t.priority")
+    List<TaskCount> countByAuthor();
+
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.commentCount = t.commentCount + 1, t.version = t.version + 1 where t.id = :taskId")
+    int incrementCommentCount(Long taskId);
+}
@@ -0,0 +1,65 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.dto.KeysetCursor;
+import com.example.taskmanagement.dto.TaskBulkUpdate;
+import com.example.taskmanagement.dto.TaskChange;
+import com.example.taskmanagement.dto.TaskFilter;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.dto.TaskTransition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Properties a page of task summaries can be sorted by. Callers check the sort against them
+     * before the query, an unknown property fails inside the repository as an invalid API usage.
+     */
+    Set<String> SORTABLE_PROPERTIES = Set.of("id", "title", "description", "status", "priority", "commentCount");
+
+    Page<TaskSummary> findSummaries(TaskFilter filter, Pageable pageable);
+
+    /**
+     * Same rows as {@link #findSummaries} without the count query.
+     */
+    Slice<TaskSummary> sliceSummaries(TaskFilter filter, Pageable pageable);
+
+    long countSummaries(TaskFilter filter);
+
+    /**
+     * Seeks past the cursor position instead of skipping rows, so every page costs the same
+     * regardless of how deep it is. No count query is executed.
+     */
+    List<TaskSummary> findSummariesAfter(TaskFilter filter, KeysetCursor cursor, int limit);
+
+    /**
+     * All matching tasks in id order, read through a server-side cursor {@code fetchSize} rows at a
+     * time. The rows are not attached to the persistence context, so memory use does not grow with
+     * the number of tasks. Must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<TaskSummary> streamSummaries(TaskFilter filter, int fetchSize);
+
+    /**
+     * Applies the change to all selected tasks with one {@code UPDATE ... RETURNING} statement and
+     * returns the updated rows along with their previous state. With {@code assigneeId} set, only
+     * tasks assigned to that user are touched. Every updated task gets a new version, and the same
+     * statement records the change in {@code task_audit} as made by {@code changedBy}. At most
+     * {@code limit} of the selected tasks are updated.
+     */
+    List<TaskTransition> bulkUpdate(TaskBulkUpdate update, Long assigneeId, int limit, String changedBy);
+
+    /**
+     * Applies the change to one task with a single conditional {@code UPDATE} and returns the
+     * updated row, new version included, along with its previous state. The row is only updated
+     * if its version equals {@code expectedVersion} and, with {@code assigneeId} set, if it is
+     * assigned to that user; otherwise nothing is changed and the result is empty. {@code null}
+     * skips a condition.
+     */
+    Optional<TaskTransition> updateIfMatches(Long taskId, TaskChange change, Long expectedVersion, Long assigneeId);
+}
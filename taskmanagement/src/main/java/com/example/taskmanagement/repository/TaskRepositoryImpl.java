@@ -0,0 +1,295 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.dto.KeysetCursor;
+import com.example.taskmanagement.dto.TaskBulkUpdate;
+import com.example.taskmanagement.dto.TaskChange;
+import com.example.taskmanagement.dto.TaskFilter;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.dto.TaskTransition;
+import com.example.taskmanagement.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<TaskSummary> findSummaries(TaskFilter filter, Pageable pageable) {
+        List<TaskSummary> content = selectPage(filter, pageable, 0);
+        return PageableExecutionUtils.getPage(content, pageable, () -> countSummaries(filter));
+    }
+
+    @Override
+    public Slice<TaskSummary> sliceSummaries(TaskFilter filter, Pageable pageable) {
+        List<TaskSummary> content = selectPage(filter, pageable, 1);
+        boolean hasNext = pageable.isPaged() && content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public long countSummaries(TaskFilter filter) {
+        Where where = Where.of(filter);
+        TypedQuery<Long> query = entityManager.createQuery("select count(t) from Task t" + where.clause(), Long.class);
+        where.parameters.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public List<TaskSummary> findSummariesAfter(TaskFilter filter, KeysetCursor cursor, int limit) {
+        Where where = Where.of(filter);
+
+        String comparison = cursor.getDirection() == Sort.Direction.ASC ? ">" : "<";
+        String direction = cursor.getDirection() == Sort.Direction.ASC ? " asc" : " desc";
+        String orderBy;
+        if (cursor.getSortKey() == KeysetCursor.SortKey.TITLE) {
+            orderBy = " order by t.title" + direction + ", t.id" + direction;
+            if (!cursor.isFirst()) {
+                where.add("(t.title, t.id) " + comparison + " (:lastValue, :lastId)", "lastValue", cursor.getLastValue());
+                where.parameters.put("lastId", cursor.getLastId());
+            }
+        } else {
+            orderBy = " order by t.id" + direction;
+            if (!cursor.isFirst()) {
+                where.add("t.id " + comparison + " :lastId", "lastId", cursor.getLastId());
+            }
+        }
+
+        TypedQuery<TaskSummary> query = entityManager.createQuery(
+                TaskRepository.SUMMARY_SELECT + where.clause() + orderBy, TaskSummary.class);
+        where.parameters.forEach(query::setParameter);
+
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<TaskSummary> streamSummaries(TaskFilter filter, int fetchSize) {
+        Where where = Where.of(filter);
+        TypedQuery<TaskSummary> query = entityManager.createQuery(
+                TaskRepository.SUMMARY_SELECT + where.clause() + " order by t.id", TaskSummary.class);
+        where.parameters.forEach(query::setParameter);
+
+        // the PostgreSQL driver only uses a cursor with a fetch size inside a transaction
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    @Transactional
+    public List<TaskTransition> bulkUpdate(TaskBulkUpdate update, Long assigneeId, int limit, String changedBy) {
+        Map<String, Object> parameters = new HashMap<>();
+        String assignments = assignments(update, parameters);
+
+        Where where = Where.nativeOf(update.getFilter() != null ? update.getFilter() : new TaskFilter());
+        if (update.getIds() != null && !update.getIds().isEmpty()) {
+            where.add("id in (:ids)", "ids", update.getIds());
+        }
+        if (assigneeId != null) {
+            // the same rule as TaskService.isAuthorized, evaluated per row
+            where.add("assignee_id = :currentAssigneeId", "currentAssigneeId", assigneeId);
+        }
+        parameters.putAll(where.parameters);
+
+        parameters.put("changedBy", changedBy);
+        return updateReturning(assignments, where, limit, true, parameters);
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskTransition> updateIfMatches(Long taskId, TaskChange change, Long expectedVersion, Long assigneeId) {
+        Map<String, Object> parameters = new HashMap<>();
+        String assignments = assignments(change, parameters);
+
+        Where where = new Where();
+        where.add("id = :id", "id", taskId);
+        if (expectedVersion != null) {
+            where.add("version = :expectedVersion", "expectedVersion", expectedVersion);
+        }
+        if (assigneeId != null) {
+            where.add("assignee_id = :currentAssigneeId", "currentAssigneeId", assigneeId);
+        }
+        parameters.putAll(where.parameters);
+
+        return updateReturning(assignments, where, 1, false, parameters).stream().findFirst();
+    }
+
+    /**
+     * Updates the rows matching {@code where} and returns them with the users' emails and their
+     * previous status, priority and assignee. The previous values come from a sub-select that
+     * locks the rows first, so they are the ones this update actually replaced even when another
+     * transaction changed the row in the meantime. At most {@code limit} rows are locked and updated.
+     * With {@code audit} set, the same statement also records every change in {@code task_audit}
+     * as made by the {@code changedBy} parameter.
+     */
+    @SuppressWarnings("unchecked")
+    private List<TaskTransition> updateReturning(String assignments, Where where, int limit, boolean audit,
+                                                 Map<String, Object> parameters) {
+        Query query = entityManager.createNativeQuery("with t as ("
+                + "update task set " + assignments
+                + " from (select id as old_id, status as old_status, priority as old_priority,"
+                + " assignee_id as old_assignee_id from task" + where.clause() + " limit :limit for update) old"
+                + " where id = old.old_id"
+                + " returning id, title, description, status, priority, author_id, assignee_id, comment_count, version,"
+                + " old_status, old_priority, old_assignee_id), "
+                + "changed as (select t.id, t.title, t.description, t.status, t.priority, a.email as author,"
+                + " s.email as assignee, t.comment_count, t.version, t.old_status, t.old_priority,"
+                + " p.email as old_assignee "
+                + "from t left join \"user\" a on a.id = t.author_id left join \"user\" s on s.id = t.assignee_id"
+                + " left join \"user\" p on p.id = t.old_assignee_id)"
+                + (audit ? ", audited as (" + TaskAuditRepository.INSERT_CHANGED + ")" : "")
+                + " select * from changed");
+        parameters.forEach(query::setParameter);
+        query.setParameter("limit", limit);
+
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new TaskTransition(toSummary(row),
+                        row[9] != null ? Task.Status.valueOf((String) row[9]) : null,
+                        row[10] != null ? Task.Priority.valueOf((String) row[10]) : null,
+                        (String) row[11]))
+                .toList();
+    }
+
+    private static String assignments(TaskChange change, Map<String, Object> parameters) {
+        List<String> assignments = new ArrayList<>();
+        if (change.getStatus() != null) {
+            assignments.add("status = :newStatus");
+            parameters.put("newStatus", change.getStatus().name());
+        }
+        if (change.getPriority() != null) {
+            assignments.add("priority = :newPriority");
+            parameters.put("newPriority", change.getPriority().name());
+        }
+        if (change.getAssigneeId() != null) {
+            assignments.add("assignee_id = :newAssigneeId");
+            parameters.put("newAssigneeId", change.getAssigneeId());
+        }
+        assignments.add("version = version + 1");
+        return String.join(", ", assignments);
+    }
+
+    private static TaskSummary toSummary(Object[] row) {
+        return new TaskSummary(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                row[3] != null ? Task.Status.valueOf((String) row[3]) : null,
+                row[4] != null ? Task.Priority.valueOf((String) row[4]) : null,
+                (String) row[5],
+                (String) row[6],
+                ((Number) row[7]).intValue(),
+                ((Number) row[8]).longValue());
+    }
+
+    private List<TaskSummary> selectPage(TaskFilter filter, Pageable pageable, int extraRows) {
+        Where where = Where.of(filter);
+        TypedQuery<TaskSummary> query = entityManager.createQuery(
+                TaskRepository.SUMMARY_SELECT + where.clause() + orderBy(pageable.getSort()), TaskSummary.class);
+        where.parameters.forEach(query::setParameter);
+
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize() + extraRows);
+        }
+        return query.getResultList();
+    }
+
+    private static String orderBy(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort tasks by " + order.getProperty());
+            }
+            orders.add("t." + order.getProperty() + (order.isAscending() ? " asc" : " desc"));
+            hasId |= order.getProperty().equals("id");
+        }
+        if (!hasId) {
+            // keeps pages stable when the requested order has ties
+            orders.add("t.id asc");
+        }
+        return " order by " + String.join(", ", orders);
+    }
+
+    /**
+     * Conditions of a task query with their named parameters. {@link #of} and {@link #nativeOf}
+     * build the same predicates for a filter, over the entity and over the task table columns,
+     * from one list of {@link Columns}.
+     */
+    static final class Where {
+
+        private static final Columns ENTITY =
+                new Columns("t.status", "t.priority", "t.author.id", "t.assignee.id", "t.title", false);
+        private static final Columns TABLE =
+                new Columns("status", "priority", "author_id", "assignee_id", "title", true);
+
+        private final List<String> predicates = new ArrayList<>();
+        final Map<String, Object> parameters = new HashMap<>();
+
+        private record Columns(String status, String priority, String author, String assignee, String title,
+                               boolean enumNames) {
+        }
+
+        static Where of(TaskFilter filter) {
+            return of(filter, ENTITY);
+        }
+
+        /**
+         * Same predicates over the task table columns, for native statements.
+         */
+        static Where nativeOf(TaskFilter filter) {
+            return of(filter, TABLE);
+        }
+
+        private static Where of(TaskFilter filter, Columns columns) {
+            Where where = new Where();
+            if (filter.getStatus() != null) {
+                where.add(columns.status() + " = :status", "status",
+                        columns.enumNames() ? filter.getStatus().name() : filter.getStatus());
+            }
+            if (filter.getPriority() != null) {
+                where.add(columns.priority() + " = :priority", "priority",
+                        columns.enumNames() ? filter.getPriority().name() : filter.getPriority());
+            }
+            if (filter.getAuthorId() != null) {
+                where.add(columns.author() + " = :authorId", "authorId", filter.getAuthorId());
+            }
+            if (filter.getAssigneeId() != null) {
+                where.add(columns.assignee() + " = :assigneeId", "assigneeId", filter.getAssigneeId());
+            }
+            if (filter.getTitlePrefix() != null && !filter.getTitlePrefix().isEmpty()) {
+                where.add(columns.title() + " like :titlePattern escape '\\'", "titlePattern",
+                        filter.titleLikePattern());
+            }
+            return where;
+        }
+
+        void add(String predicate, String name, Object value) {
+            predicates.add(predicate);
+            parameters.put(name, value);
+        }
+
+        String clause() {
+            return predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.taskmanagement.search;
+
+import com.example.taskmanagement.dto.CommentSummary;
+import com.example.taskmanagement.dto.KeysetCursor;
+import com.example.taskmanagement.dto.TaskFilter;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TaskTextChangedEvent;
+import com.example.taskmanagement.repository.CommentRepository;
+import com.example.taskmanagement.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.join.JoinUtil;
+import org.apache.lucene.search.join.ScoreMode;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text index over task titles, descriptions and comments, kept in memory-mapped Lucene
+ * segments under {@code app.search.index-dir}. A task and each of its comments are separate
+ * documents, joined at query time, so a new comment is indexed on its own.
+ * <p>
+ * The index follows {@link TaskTextChangedEvent}s and deletions once they have committed, so a
+ * rolled back change never becomes searchable; searches refresh the reader first, so a task is
+ * searchable as soon as the call that saved it returns. Changes are committed to disk
+ * every {@code app.search.commit-interval} and on shutdown. Each commit records whether the
+ * application shut down cleanly, and after a crash the index is rebuilt from the database in
+ * the background. Until the rebuild finishes, searches use the last committed index.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndex {
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+    static final String COMMENTS = "comments";
+    static final String COMMENT_ID = "commentId";
+    static final String TASK_ID = "taskId";
+
+    private static final String CLEAN_SHUTDOWN = "cleanShutdown";
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final float TITLE_BOOST = 3f;
+    private static final float COMMENTS_BOOST = 0.5f;
+    private static final float TIE_BREAKER = 0.1f;
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final int maxWindow;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    /**
+     * Single writes share the lock; a rebuild batch takes it exclusively, so a task saved while
+     * the batch is being read from the database can't be overwritten with the older copy.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "task-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean rebuildNeeded;
+    private volatile boolean rebuilding;
+    private volatile boolean closed;
+
+    public TaskSearchIndex(TaskRepository taskRepository, CommentRepository commentRepository,
+                           @Value("${app.search.index-dir:data/search-index}") Path indexDir,
+                           @Value("${app.search.max-window:10000}") int maxWindow) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.maxWindow = maxWindow;
+        try {
+            Files.createDirectories(indexDir);
+            directory = new MMapDirectory(indexDir);
+            rebuildNeeded = !wasShutDownCleanly(directory);
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            commit(false);
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open search index in " + indexDir, e);
+        }
+    }
+
+    /**
+     * Adds or replaces the title and description of the task; its comments are left as they are.
+     */
+    public void index(Long taskId, String title, String description) {
+        Document document = new Document();
+        document.add(new StringField(ID, taskId.toString(), Field.Store.YES));
+        addText(document, TITLE, title);
+        addText(document, DESCRIPTION, description);
+
+        write(() -> writer.updateDocument(new Term(ID, taskId.toString()), document));
+    }
+
+    public void indexComment(Long commentId, Long taskId, String text) {
+        Document document = new Document();
+        document.add(new StringField(COMMENT_ID, commentId.toString(), Field.Store.NO));
+        document.add(new StringField(TASK_ID, taskId.toString(), Field.Store.NO));
+        document.add(new SortedDocValuesField(TASK_ID, new BytesRef(taskId.toString())));
+        addText(document, COMMENTS, text);
+
+        write(() -> writer.updateDocument(new Term(COMMENT_ID, commentId.toString()), document));
+    }
+
+    /**
+     * Removes the task along with its comments.
+     */
+    public void delete(Long taskId) {
+        write(() -> writer.deleteDocuments(new Term(ID, taskId.toString()), new Term(TASK_ID, taskId.toString())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskTextChanged(TaskTextChangedEvent event) {
+        if (event.commentId() != null) {
+            indexComment(event.commentId(), event.taskId(), event.comment());
+        } else {
+            index(event.taskId(), event.title(), event.description());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangedEvent.Type.DELETED) {
+            delete(event.taskId());
+        }
+    }
+
+    /**
+     * Returns ids of the tasks matching every word of {@code text}, best match first. A title
+     * match weighs more than a description match, which weighs more than a comment match.
+     * The total is exact up to 1000 hits and a lower bound above that.
+     */
+    public Hits search(String text, int offset, int limit) {
+        if (offset + limit > maxWindow) {
+            throw new IllegalArgumentException("Search results are limited to the first " + maxWindow + " hits");
+        }
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            if (!rebuilding) {
+                searcherManager.maybeRefresh();
+            }
+            searcher = searcherManager.acquire();
+            Query query = parse(terms, searcher);
+            TopDocs topDocs = searcher.search(query, offset + limit);
+            StoredFields storedFields = searcher.storedFields();
+
+            List<Long> ids = new ArrayList<>();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = offset; i < scoreDocs.length; i++) {
+                ids.add(Long.valueOf(storedFields.document(scoreDocs[i].doc, Set.of(ID)).get(ID)));
+            }
+            return new Hits(ids, topDocs.totalHits.value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Number of indexed tasks, comments not counted.
+     */
+    public int size() {
+        IndexSearcher searcher = null;
+        try {
+            searcherManager.maybeRefresh();
+            searcher = searcherManager.acquire();
+            return searcher.count(TermRangeQuery.newStringRange(ID, null, null, true, true));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (rebuildNeeded) {
+            log.info("Search index was not shut down cleanly, rebuilding it from the database");
+            rebuildAsync();
+        }
+    }
+
+    public void rebuildAsync() {
+        rebuildExecutor.execute(this::rebuild);
+    }
+
+    /**
+     * Re-reads all tasks and their comments in id order and replaces the index contents.
+     */
+    public void rebuild() {
+        rebuilding = true;
+        try {
+            write(writer::deleteAll);
+
+            KeysetCursor cursor = KeysetCursor.first(Sort.by(ID));
+            int indexed = 0;
+            while (!closed) {
+                List<TaskSummary> batch = indexBatch(cursor);
+                indexed += batch.size();
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                cursor = cursor.after(batch.get(batch.size() - 1));
+            }
+
+            if (!closed) {
+                commit(false);
+                rebuildNeeded = false;
+                log.info("Search index rebuilt, {} tasks indexed", indexed);
+            }
+        } catch (RuntimeException e) {
+            log.error("Search index rebuild failed", e);
+        } finally {
+            rebuilding = false;
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.commit-interval:30000}")
+    public void commitChanges() {
+        if (!rebuilding && writer.hasUncommittedChanges()) {
+            commit(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        closed = true;
+        rebuildExecutor.shutdown();
+        rebuildExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        // an interrupted rebuild leaves the index half-filled, so the next start has to rebuild again
+        commit(!rebuilding && !rebuildNeeded);
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private List<TaskSummary> indexBatch(KeysetCursor cursor) {
+        lock.writeLock().lock();
+        try {
+            List<TaskSummary> batch = taskRepository.findSummariesAfter(new TaskFilter(), cursor, REBUILD_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            for (TaskSummary task : batch) {
+                index(task.getId(), task.getTitle(), task.getDescription());
+            }
+            for (CommentSummary comment : commentRepository
+                    .findSummariesByTaskIds(batch.stream().map(TaskSummary::getId).toList())) {
+                indexComment(comment.getId(), comment.getTaskId(), comment.getText());
+            }
+            return batch;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Every word has to match in at least one field of the task or in one of its comments; within
+     * a word the best matching field decides the score, for comments the best matching comment.
+     * The comment clauses are resolved against {@code searcher}, so the query is only valid for it.
+     */
+    private Query parse(List<String> terms, IndexSearcher searcher) throws IOException {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            Query comments = JoinUtil.createJoinQuery(TASK_ID, false, ID,
+                    new TermQuery(new Term(COMMENTS, term)), searcher, ScoreMode.Max);
+            query.add(new DisjunctionMaxQuery(List.of(
+                    new BoostQuery(new TermQuery(new Term(TITLE, term)), TITLE_BOOST),
+                    new TermQuery(new Term(DESCRIPTION, term)),
+                    new BoostQuery(comments, COMMENTS_BOOST)
+            ), TIE_BREAKER), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static void addText(Document document, String field, String text) {
+        if (text != null && !text.isBlank()) {
+            document.add(new TextField(field, text, Field.Store.NO));
+        }
+    }
+
+    private void write(IndexOperation operation) {
+        lock.readLock().lock();
+        try {
+            operation.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private synchronized void commit(boolean cleanShutdown) {
+        try {
+            writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN, String.valueOf(cleanShutdown)).entrySet());
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Cannot refresh search index reader", e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Cannot release search index reader", e);
+        }
+    }
+
+    private static boolean wasShutDownCleanly(Directory directory) throws IOException {
+        return DirectoryReader.indexExists(directory)
+                && Boolean.parseBoolean(SegmentInfos.readLatestCommit(directory).getUserData().get(CLEAN_SHUTDOWN));
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation {
+        void run() throws IOException;
+    }
+
+    public record Hits(List<Long> taskIds, long total) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.taskmanagement.security;
+
+import com.example.taskmanagement.security.RateLimiter.RouteClass;
+import com.example.taskmanagement.security.RateLimiter.Tier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Limits failed authentications per remote address. Runs ahead of the JWT and Basic
+ * authentication filters, which answer a wrong password or an invalid token with {@code 401}
+ * before {@link RateLimitFilter} is reached. Every {@code /api/**} request answered with
+ * {@code 401} takes a token from the {@link RouteClass#FAILED_AUTH} bucket of its address; while
+ * that bucket is empty, requests from the address are answered with {@code 429} and
+ * {@code Retry-After} before their credentials are checked.
+ */
+@Component
+public class AuthenticationFailureFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final Counter limited;
+
+    public AuthenticationFailureFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry,
+                                       @Value("${app.rate-limit.enabled:true}") boolean enabled) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.limited = Counter.builder("http.server.requests.rate.limited")
+                .description("Requests refused by the rate limiter")
+                .tags("tier", Tier.ANONYMOUS.name(), "route", RouteClass.FAILED_AUTH.name())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String address = request.getRemoteAddr();
+        long waitNanos = rateLimiter.waitFor(Tier.ANONYMOUS, address, RouteClass.FAILED_AUTH);
+        if (waitNanos > 0) {
+            limited.increment();
+            RateLimitFilter.tooManyRequests(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+        if (response.getStatus() == HttpServletResponse.SC_UNAUTHORIZED) {
+            rateLimiter.acquire(Tier.ANONYMOUS, address, RouteClass.FAILED_AUTH, 1);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.taskmanagement.security;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Username and password authentication (HTTP Basic) whose password check, and rehash when the
+ * stored hash is weaker than the encoder's, runs on the {@link PasswordHashingExecutor} under the
+ * limits of the client address and the username.
+ */
+public class HashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    public HashingAuthenticationProvider(PasswordEncoder passwordEncoder, PasswordHashingExecutor passwordHashingExecutor) {
+        super(passwordEncoder);
+        this.passwordHashingExecutor = passwordHashingExecutor;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String clientIp = authentication.getDetails() instanceof WebAuthenticationDetails details
+                ? details.getRemoteAddress()
+                : null;
+        return passwordHashingExecutor.execute(clientIp, authentication.getName(), () -> super.authenticate(authentication));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.taskmanagement.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+
+import java.io.IOException;
+
+/**
+ * The HTTP Basic entry point, except that a password check refused by the
+ * {@link PasswordHashingExecutor} is answered with its {@code 429}/{@code 503} and
+ * {@code Retry-After} rather than a challenge for credentials.
+ */
+public class PasswordHashingAwareEntryPoint extends BasicAuthenticationEntryPoint {
+
+    public PasswordHashingAwareEntryPoint() {
+        setRealmName("Realm");
+    }
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException {
+        if (authException instanceof PasswordHashingRejectedException rejected) {
+            response.setStatus(rejected.getStatus().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejected.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"" + rejected.getMessage() + "\"}");
+            return;
+        }
+        super.commence(request, response, authException);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.taskmanagement.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing (BCrypt checks and encodes) on its own pool of
+ * {@code app.security.password-hashing.threads} threads, one per core by default, so that a burst
+ * of logins queues here instead of occupying the request threads and the CPU that task requests need.
+ * <p>
+ * Admission is decided up front, without waiting: a client IP may have at most {@code max-per-ip}
+ * and an email {@code max-per-email} hashes queued or running, otherwise the call is rejected with
+ * {@code 429}. When {@code queue-capacity} hashes are already waiting for a thread, or a queued one
+ * has not finished within {@code max-wait}, it is rejected with {@code 503}. The request thread
+ * blocks only for admitted work, so at most {@code threads + queue-capacity} request threads
+ * wait on hashing at any time.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final int maxPerIp;
+    private final int maxPerEmail;
+    private final ConcurrentMap<String, Integer> inFlightByIp = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> inFlightByEmail = new ConcurrentHashMap<>();
+    private final Counter clientRejections;
+    private final Counter saturationRejections;
+
+    @Autowired
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${app.security.password-hashing.threads:0}") int threads,
+                                   @Value("${app.security.password-hashing.queue-capacity:32}") int queueCapacity,
+                                   @Value("${app.security.password-hashing.max-wait:2s}") Duration maxWait,
+                                   @Value("${app.security.password-hashing.max-per-ip:4}") int maxPerIp,
+                                   @Value("${app.security.password-hashing.max-per-email:2}") int maxPerEmail) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.maxWaitMillis = maxWait.toMillis();
+        this.maxPerIp = maxPerIp;
+        this.maxPerEmail = maxPerEmail;
+
+        Gauge.builder("auth.password.hashing.queued", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes running")
+                .register(meterRegistry);
+        this.clientRejections = Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashes refused")
+                .tag("reason", "client-limit")
+                .register(meterRegistry);
+        this.saturationRejections = Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashes refused")
+                .tag("reason", "saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} on the hashing pool on behalf of the client and the email (either may be
+     * {@code null}) and returns its result.
+     *
+     * @throws PasswordHashingRejectedException if the work was not admitted or did not finish in time
+     */
+    public <T> T execute(String clientIp, String email, Supplier<T> work) {
+        String emailKey = email != null ? email.toLowerCase(Locale.ROOT) : null;
+        if (!acquire(inFlightByIp, clientIp, maxPerIp)) {
+            throw rejected(HttpStatus.TOO_MANY_REQUESTS, "Too many concurrent logins from this address");
+        }
+        if (!acquire(inFlightByEmail, emailKey, maxPerEmail)) {
+            release(inFlightByIp, clientIp);
+            throw rejected(HttpStatus.TOO_MANY_REQUESTS, "Too many concurrent logins for this account");
+        }
+
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releaseOnce = () -> {
+            if (released.compareAndSet(false, true)) {
+                release(inFlightByIp, clientIp);
+                release(inFlightByEmail, emailKey);
+            }
+        };
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                started.set(true);
+                try {
+                    return work.get();
+                } finally {
+                    releaseOnce.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            releaseOnce.run();
+            throw rejected(HttpStatus.SERVICE_UNAVAILABLE, "Too many logins in progress, retry later");
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // a hash that has not started yet never will; one that is running finishes and releases itself
+            if (future.cancel(false) && !started.get()) {
+                releaseOnce.run();
+            }
+            throw rejected(HttpStatus.SERVICE_UNAVAILABLE, "Login timed out, retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (future.cancel(false) && !started.get()) {
+                releaseOnce.run();
+            }
+            throw rejected(HttpStatus.SERVICE_UNAVAILABLE, "Login interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private PasswordHashingRejectedException rejected(HttpStatus status, String message) {
+        (status == HttpStatus.TOO_MANY_REQUESTS ? clientRejections : saturationRejections).increment();
+        return new PasswordHashingRejectedException(status, RETRY_AFTER_SECONDS, message);
+    }
+
+    private static boolean acquire(ConcurrentMap<String, Integer> inFlight, String key, int limit) {
+        if (key == null) {
+            return true;
+        }
+        AtomicBoolean acquired = new AtomicBoolean();
+        inFlight.compute(key, (k, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= limit) {
+                return count;
+            }
+            acquired.set(true);
+            return current + 1;
+        });
+        return acquired.get();
+    }
+
+    private static void release(ConcurrentMap<String, Integer> inFlight, String key) {
+        if (key != null) {
+            inFlight.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+}
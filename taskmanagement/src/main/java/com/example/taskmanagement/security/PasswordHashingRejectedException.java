@@ -0,0 +1,23 @@
+package com.example.taskmanagement.security;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * A password could not be checked or hashed right now: {@code 429 Too Many Requests} when the
+ * client or account already has its share of hashing in flight, {@code 503 Service Unavailable}
+ * when the hashing pool as a whole is saturated. The client may retry after {@code retryAfterSeconds}.
+ */
+@Getter
+public class PasswordHashingRejectedException extends AuthenticationException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.taskmanagement.security;
+
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.security.RateLimiter.RouteClass;
+import com.example.taskmanagement.security.RateLimiter.Tier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the request rate of every client with the {@link RateLimiter}, once the security filters
+ * have authenticated it. Requests to {@code /api/user/**} are {@link RouteClass#AUTH}, other
+ * {@code /api/**} requests are {@link RouteClass#READ} or {@link RouteClass#WRITE} by method, and
+ * anything else is not limited.
+ * <p>
+ * A read costs one token per {@code app.rate-limit.cost-page-size} rows of its {@code size}
+ * parameter, capped like {@link org.springframework.data.domain.Pageable} itself at
+ * {@code spring.data.web.pageable.max-page-size}; an export reads everything and costs as much
+ * as the largest page. A refused request is answered with {@code 429} and {@code Retry-After}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int ROUTE_CLASSES = RouteClass.values().length;
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final int costPageSize;
+    private final int maxPageSize;
+    private final Counter[] limited = new Counter[Tier.values().length * ROUTE_CLASSES];
+
+    @Autowired
+    public RateLimitFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.cost-page-size:50}") int costPageSize,
+                           @Value("${spring.data.web.pageable.max-page-size:2000}") int maxPageSize) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.costPageSize = Math.max(costPageSize, 1);
+        this.maxPageSize = maxPageSize;
+        for (Tier tier : Tier.values()) {
+            for (RouteClass route : RouteClass.values()) {
+                limited[tier.ordinal() * ROUTE_CLASSES + route.ordinal()] =
+                        Counter.builder("http.server.requests.rate.limited")
+                                .description("Requests refused by the rate limiter")
+                                .tags("tier", tier.name(), "route", route.name())
+                                .register(meterRegistry);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteClass route = routeClass(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Tier tier = tier(authentication);
+        String client = tier == Tier.ANONYMOUS ? request.getRemoteAddr() : authentication.getName();
+
+        long waitNanos = rateLimiter.acquire(tier, client, route, route == RouteClass.READ ? cost(request) : 1);
+        if (waitNanos > 0) {
+            limited[tier.ordinal() * ROUTE_CLASSES + route.ordinal()].increment();
+            tooManyRequests(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    static void tooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\"}");
+    }
+
+    private static RouteClass routeClass(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/api/user/")) {
+            return RouteClass.AUTH;
+        }
+        String method = request.getMethod();
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS")
+                ? RouteClass.READ
+                : RouteClass.WRITE;
+    }
+
+    private static Tier tier(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return Tier.ANONYMOUS;
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getUser().getRole() == User.Role.ADMIN
+                    ? Tier.ADMIN
+                    : Tier.USER;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                return Tier.ADMIN;
+            }
+        }
+        return Tier.USER;
+    }
+
+    private int cost(HttpServletRequest request) {
+        int rows;
+        if (request.getRequestURI().equals("/api/tasks/export")) {
+            rows = maxPageSize;
+        } else {
+            String size = request.getParameter("size");
+            if (size == null) {
+                return 1;
+            }
+            try {
+                rows = Math.min(Integer.parseInt(size), maxPageSize);
+            } catch (NumberFormatException e) {
+                return 1;
+            }
+        }
+        return Math.max(1, (rows + costPageSize - 1) / costPageSize);
+    }
+}
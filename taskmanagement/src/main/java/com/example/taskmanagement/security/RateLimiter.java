@@ -0,0 +1,191 @@
+package com.example.taskmanagement.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets per client and {@link RouteClass}. A client is a user, keyed by email, or an
+ * anonymous caller, keyed by remote address; its limits depend on its {@link Tier} and come from
+ * {@code app.rate-limit.limits}, keyed like {@code "[USER READ]"}. A combination without an entry
+ * is not limited. {@link RouteClass#FAILED_AUTH} counts failed authentications of an address
+ * rather than requests, see {@link AuthenticationFailureFilter}.
+ * <p>
+ * A bucket is a single {@code long}, the time at which it will be full again (GCRA), so taking
+ * tokens is one {@link System#nanoTime()} and one CAS, without locks or allocation. A bucket
+ * that has been full for {@code app.rate-limit.idle-timeout} is indistinguishable from a new one
+ * and is swept away every {@code app.rate-limit.sweep-interval}. Beyond
+ * {@code app.rate-limit.max-clients} tracked clients, new ones share a single set of buckets until
+ * the next sweep, so a flood of addresses costs no memory and is limited as a whole.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    public enum Tier {
+        ANONYMOUS, USER, ADMIN
+    }
+
+    public enum RouteClass {
+        READ, WRITE, AUTH, FAILED_AUTH
+    }
+
+    public record Limit(double rate, int burst) {
+    }
+
+    private static final int ROUTE_CLASSES = RouteClass.values().length;
+
+    /**
+     * Per tier and route class: nanoseconds per token and the burst in nanoseconds, or
+     * {@code -1} for no limit.
+     */
+    private final long[] intervals = new long[Tier.values().length * ROUTE_CLASSES];
+    private final long[] tolerances = new long[intervals.length];
+    private final int[] bursts = new int[intervals.length];
+    private final long idleTimeoutNanos;
+    private final int maxClients;
+
+    private final ConcurrentMap<String, AtomicLongArray> users = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLongArray> addresses = new ConcurrentHashMap<>();
+    private final AtomicLongArray overflow;
+
+    @Autowired
+    public RateLimiter(Environment environment, MeterRegistry meterRegistry,
+                       @Value("${app.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                       @Value("${app.rate-limit.max-clients:100000}") int maxClients) {
+        this(Binder.get(environment)
+                .bind("app.rate-limit.limits", Bindable.mapOf(String.class, Limit.class))
+                .orElse(Map.of()), idleTimeout, maxClients);
+        Gauge.builder("rate.limit.clients", this, RateLimiter::size)
+                .description("Clients with a rate limit bucket in memory")
+                .register(meterRegistry);
+    }
+
+    RateLimiter(Map<String, Limit> limits, Duration idleTimeout, int maxClients) {
+        for (Tier tier : Tier.values()) {
+            for (RouteClass route : RouteClass.values()) {
+                int slot = tier.ordinal() * ROUTE_CLASSES + route.ordinal();
+                Limit limit = limits.get(tier + " " + route);
+                if (limit == null || limit.rate() <= 0 || limit.burst() <= 0) {
+                    intervals[slot] = -1;
+                    continue;
+                }
+                intervals[slot] = Math.max(1, Math.round(1e9 / limit.rate()));
+                tolerances[slot] = intervals[slot] * limit.burst();
+                bursts[slot] = limit.burst();
+            }
+        }
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxClients = maxClients;
+        this.overflow = newBuckets(System.nanoTime());
+    }
+
+    /**
+     * Takes {@code cost} tokens from the client's bucket for the route class. Returns {@code 0}
+     * if they were taken, otherwise the nanoseconds until they will be available; a cost above
+     * the burst counts as the whole burst, so any request can pass once the bucket is full.
+     */
+    public long acquire(Tier tier, String client, RouteClass route, int cost) {
+        int slot = tier.ordinal() * ROUTE_CLASSES + route.ordinal();
+        long interval = intervals[slot];
+        if (interval < 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        AtomicLongArray buckets = buckets(tier == Tier.ANONYMOUS ? addresses : users, client, now);
+        long increment = interval * Math.min(Math.max(cost, 1), bursts[slot]);
+        long tolerance = tolerances[slot];
+        int index = route.ordinal();
+        while (true) {
+            long full = buckets.get(index);
+            long next = (full - now > 0 ? full : now) + increment;
+            long wait = next - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (buckets.compareAndSet(index, full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until the client's bucket for the route class has a token, without taking it;
+     * {@code 0} if it has one now.
+     */
+    public long waitFor(Tier tier, String client, RouteClass route) {
+        int slot = tier.ordinal() * ROUTE_CLASSES + route.ordinal();
+        long interval = intervals[slot];
+        if (interval < 0) {
+            return 0;
+        }
+        AtomicLongArray buckets = (tier == Tier.ANONYMOUS ? addresses : users).get(client);
+        if (buckets == null) {
+            if (size() < maxClients) {
+                return 0;
+            }
+            buckets = overflow;
+        }
+        long now = System.nanoTime();
+        long full = buckets.get(route.ordinal());
+        long wait = (full - now > 0 ? full : now) + interval - tolerances[slot] - now;
+        return Math.max(wait, 0);
+    }
+
+    public int size() {
+        return users.size() + addresses.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int before = size();
+        users.values().removeIf(buckets -> isIdle(buckets, now));
+        addresses.values().removeIf(buckets -> isIdle(buckets, now));
+        log.debug("Evicted {} idle rate limit clients", before - size());
+    }
+
+    private AtomicLongArray buckets(ConcurrentMap<String, AtomicLongArray> clients, String client, long now) {
+        AtomicLongArray buckets = clients.get(client);
+        if (buckets != null) {
+            return buckets;
+        }
+        if (size() >= maxClients) {
+            return overflow;
+        }
+        return clients.computeIfAbsent(client, key -> newBuckets(now));
+    }
+
+    private boolean isIdle(AtomicLongArray buckets, long now) {
+        for (int i = 0; i < buckets.length(); i++) {
+            if (now - buckets.get(i) < idleTimeoutNanos) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Full buckets: full since {@code now - idleTimeout}, so that they are idle right away.
+     */
+    private AtomicLongArray newBuckets(long now) {
+        AtomicLongArray buckets = new AtomicLongArray(ROUTE_CLASSES);
+        for (int i = 0; i < ROUTE_CLASSES; i++) {
+            buckets.set(i, now - idleTimeoutNanos);
+        }
+        return buckets;
+    }
+}
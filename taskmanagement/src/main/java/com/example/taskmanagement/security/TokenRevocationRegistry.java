@@ -0,0 +1,76 @@
+package com.example.taskmanagement.security;
+
+import com.example.taskmanagement.repository.RefreshSessionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Refresh sessions revoked within the last {@code app.jwt.access-ttl}, whose access tokens may not
+ * have expired yet. The set maps session id to the time after which no access token of the session
+ * can be valid, so checking a token is one hash lookup and an entry is dropped as soon as it has
+ * served its purpose: the set never holds more than one access-token lifetime of revocations.
+ * <p>
+ * Revocations are stored as {@code revoked_at} of the session and read back at startup. The
+ * periodic prune also deletes sessions from the database once they have ended.
+ */
+@Slf4j
+@Component
+public class TokenRevocationRegistry {
+
+    private final RefreshSessionRepository refreshSessionRepository;
+    private final Duration accessTtl;
+    private final ConcurrentMap<UUID, Long> revoked = new ConcurrentHashMap<>();
+
+    public TokenRevocationRegistry(RefreshSessionRepository refreshSessionRepository,
+                                   @Value("${app.jwt.access-ttl:15m}") Duration accessTtl) {
+        this.refreshSessionRepository = refreshSessionRepository;
+        this.accessTtl = accessTtl;
+    }
+
+    @PostConstruct
+    public void load() {
+        Instant now = Instant.now();
+        long until = now.plus(accessTtl).toEpochMilli();
+        refreshSessionRepository.findRevokedSince(now.minus(accessTtl)).forEach(id -> revoked.put(id, until));
+        if (!revoked.isEmpty()) {
+            log.info("Loaded {} revoked sessions", revoked.size());
+        }
+    }
+
+    public boolean isRevoked(UUID sessionId) {
+        return revoked.containsKey(sessionId);
+    }
+
+    /**
+     * Ends the session: its refresh tokens are refused from now on, its access tokens until they expire.
+     */
+    public void revoke(UUID sessionId) {
+        Instant now = Instant.now();
+        refreshSessionRepository.revoke(sessionId, now);
+        revoked.put(sessionId, now.plus(accessTtl).toEpochMilli());
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.prune-interval:60000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(until -> until <= now);
+        int deleted = refreshSessionRepository.deleteEnded(Instant.ofEpochMilli(now),
+                Instant.ofEpochMilli(now).minus(accessTtl));
+        if (deleted > 0) {
+            log.debug("Deleted {} ended refresh sessions", deleted);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.taskmanagement.security;
+
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * In-memory table of the current token version of users. A token is accepted only while the
+ * version it was issued with matches; bumping the version revokes all tokens issued before.
+ * <p>
+ * Versions are read from the database on first use and kept for at most
+ * {@code app.security.token-versions.ttl} after that, bounded by
+ * {@code app.security.token-versions.max-size} users. A bump is applied at once only on the node
+ * that made it: other nodes running with {@code app.security.stateless-auth} keep accepting the
+ * revoked tokens until their entry expires, so the ttl is how long a revocation takes to reach
+ * the whole cluster.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> versions;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${app.security.token-versions.max-size:10000}") long maxSize,
+                                @Value("${app.security.token-versions.ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = versions.get(userId, key -> userRepository.findById(key)
+                .map(User::getTokenVersion)
+                .orElse(null));
+        return current != null && current == tokenVersion;
+    }
+
+    public void update(User user) {
+        versions.put(user.getId(), user.getTokenVersion());
+    }
+
+    public void remove(Long userId) {
+        versions.invalidate(userId);
+    }
+}
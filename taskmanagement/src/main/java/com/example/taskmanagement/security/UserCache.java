@@ -0,0 +1,77 @@
+package com.example.taskmanagement.security;
+
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+
+/**
+ * Resolves users by email. The user already authenticated for the current request is taken from
+ * the security context, everyone else comes from a process-wide cache in front of {@link UserRepository},
+ * bounded by {@code app.security.user-cache.max-size} entries and {@code app.security.user-cache.ttl}
+ * after write. Cached users are shared between threads and must not be modified. Emails are also
+ * cached by user id, with the same bounds; a user's email never changes.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> usersByEmail;
+    private final Cache<Long, String> emailsById;
+
+    @Autowired
+    public UserCache(UserRepository userRepository,
+                     @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                     @Value("${app.security.user-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.usersByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.emailsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public UserCache(UserRepository userRepository) {
+        this(userRepository, 10_000, Duration.ofMinutes(10));
+    }
+
+    public User getByEmail(String email) {
+        User current = currentUser();
+        if (current != null && current.getId() != null && current.getEmail().equals(email)) {
+            return current;
+        }
+
+        return usersByEmail.get(email, key -> userRepository.findByEmail(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
+    }
+
+    public String getEmail(Long userId) {
+        return emailsById.get(userId, key -> userRepository.findById(key)
+                .map(User::getEmail)
+                .orElseThrow(() -> new NoSuchElementException("User not found")));
+    }
+
+    public void invalidate(String email) {
+        usersByEmail.invalidate(email);
+    }
+
+    private static User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getUser();
+        }
+        return null;
+    }
+}
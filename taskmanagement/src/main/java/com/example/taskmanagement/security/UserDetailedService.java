@@ -1,8 +1,6 @@
 package com.example.taskmanagement.security;
 
-import com.example.taskmanagement.repository.UserRepository;
 import lombok.AllArgsConstructor;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,13 +9,12 @@ import org.springframework.stereotype.Service;
 @AllArgsConstructor
 public class UserDetailedService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+    public UserPrincipal loadUserByUsername(String email) throws UsernameNotFoundException {
 
-        return new UserPrincipal(userRepository.findByEmail(email).orElseThrow(()
-                -> new UsernameNotFoundException("User not found")));
+        return new UserPrincipal(userCache.getByEmail(email));
 
     }
 
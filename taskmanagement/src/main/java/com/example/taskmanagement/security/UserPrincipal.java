@@ -1,6 +1,7 @@
 package com.example.taskmanagement.security;
 
 import com.example.taskmanagement.entity.User;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -12,6 +13,7 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class UserPrincipal implements UserDetails {
 
+    @Getter
     private final User user;
 
 
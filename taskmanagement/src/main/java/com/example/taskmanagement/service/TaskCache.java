@@ -0,0 +1,74 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Mapped tasks by id, in front of the single-task reads of {@link TaskService}. Bounded by
+ * {@code app.tasks.cache.max-size} entries and {@code app.tasks.cache.ttl} after write; when
+ * full, Caffeine's W-TinyLFU policy keeps the tasks that are read most often.
+ * <p>
+ * Every write path of {@code TaskService} publishes a {@link TaskChangedEvent}, and the task is
+ * evicted once that change has committed. A read that is loading the task at the same moment
+ * finishes before the eviction, so no stale copy is left behind. Cached tasks are shared between
+ * threads and must not be modified.
+ */
+@Component
+public class TaskCache implements MeterBinder {
+
+    private final Cache<Long, TaskResponse> tasks;
+
+    public TaskCache(@Value("${app.tasks.cache.max-size:10000}") long maxSize,
+                     @Value("${app.tasks.cache.ttl:10m}") Duration ttl) {
+        this.tasks = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public TaskResponse get(Long taskId, Function<Long, TaskResponse> loader) {
+        return tasks.get(taskId, loader);
+    }
+
+    public TaskResponse getIfPresent(Long taskId) {
+        return tasks.getIfPresent(taskId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        tasks.invalidate(event.taskId());
+    }
+
+    /**
+     * Hits, misses, load time and evictions as {@code cache.*} meters tagged {@code cache=tasks},
+     * plus the hit ratio since startup. Micrometer reports load times of loading caches only, so
+     * that timer is registered here.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, tasks, "tasks");
+        FunctionTimer.builder("cache.load.duration", tasks,
+                        cache -> cache.stats().loadCount(), cache -> cache.stats().totalLoadTime(), TimeUnit.NANOSECONDS)
+                .tag("cache", "tasks")
+                .description("The time spent loading tasks into the cache")
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", tasks, cache -> cache.stats().hitRate())
+                .tag("cache", "tasks")
+                .register(registry);
+    }
+}
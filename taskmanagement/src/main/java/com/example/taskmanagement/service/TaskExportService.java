@@ -0,0 +1,147 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.ExportFormat;
+import com.example.taskmanagement.dto.TaskFilter;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export of the whole task list. Rows are read through a database cursor
+ * ({@code app.tasks.export-fetch-size} rows per round trip) and written to the response as they
+ * arrive, so neither the result set nor the response body is held in memory.
+ */
+@Slf4j
+@Service
+public class TaskExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * First characters that make Excel, LibreOffice and Google Sheets evaluate a cell.
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private static final String CSV_HEADER = "id,title,description,status,priority,author,assignee,commentCount,version";
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter rowWriter;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public TaskExportService(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, @Value("${app.tasks.export-fetch-size:1000}") int fetchSize) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writerFor(TaskSummary.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes the tasks matching the filter to {@code out} and returns how many were written.
+     * {@code out} is flushed but not closed.
+     */
+    public long exportTasks(TaskFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long start = System.nanoTime();
+
+        Long rows;
+        try {
+            rows = transactionTemplate.execute(status -> {
+                try (Stream<TaskSummary> tasks = taskRepository.streamSummaries(filter, fetchSize)) {
+                    return format == ExportFormat.CSV
+                            ? writeCsv(tasks.iterator(), writer)
+                            : writeNdjson(tasks.iterator(), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // usually the client went away, there is nobody to report the error to
+            throw e.getCause();
+        }
+        writer.flush();
+
+        log.info("Exported {} tasks as {} in {} ms", rows, format, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<TaskSummary> tasks, Writer writer) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (tasks.hasNext()) {
+                rowWriter.writeValue(generator, tasks.next());
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static long writeCsv(Iterator<TaskSummary> tasks, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+
+        long rows = 0;
+        while (tasks.hasNext()) {
+            TaskSummary task = tasks.next();
+            writer.write(String.valueOf(task.getId()));
+            writeCsvField(writer, task.getTitle());
+            writeCsvField(writer, task.getDescription());
+            writeCsvField(writer, task.getStatus() != null ? task.getStatus().name() : null);
+            writeCsvField(writer, task.getPriority() != null ? task.getPriority().name() : null);
+            writeCsvField(writer, task.getAuthor());
+            writeCsvField(writer, task.getAssignee());
+            writeCsvField(writer, String.valueOf(task.getCommentCount()));
+            writeCsvField(writer, String.valueOf(task.getVersion()));
+            writer.write("\r\n");
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Appends a field as RFC 4180 describes it: quoted when it contains a separator, a quote or a
+     * line break, with quotes doubled. {@code null} becomes an empty field. A value a spreadsheet
+     * would take for a formula gets a leading {@code '}, so opening the export runs nothing.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
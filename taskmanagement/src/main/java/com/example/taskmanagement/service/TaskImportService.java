@@ -0,0 +1,223 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskImportItem;
+import com.example.taskmanagement.dto.TaskImportResult;
+import com.example.taskmanagement.entity.Comment;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TaskTextChangedEvent;
+import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.security.UserCache;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk task import. The request body is read item by item, either as a JSON array or as
+ * newline-delimited JSON, and written in chunks of {@code app.tasks.import-chunk-size} items,
+ * each in its own transaction. Users referenced by a chunk are loaded with one query, and tasks
+ * and comments go to the database in JDBC batches ({@code hibernate.jdbc.batch_size}), which the
+ * driver rewrites into multi-row inserts.
+ */
+@Slf4j
+@Service
+public class TaskImportService {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public TaskImportService(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                             UserRepository userRepository, UserCache userCache, ObjectMapper objectMapper,
+                             Validator validator, ApplicationEventPublisher eventPublisher,
+                             @Value("${app.tasks.import-chunk-size:1000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public TaskImportResult importTasks(InputStream body, String email) throws IOException {
+        Long importerId = userCache.getByEmail(email).getId();
+        TaskImportResult result = new TaskImportResult();
+        List<Item> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<TaskImportItem> items = objectMapper.readerFor(TaskImportItem.class).readValues(body)) {
+            while (hasNext(items, result)) {
+                int index = result.getReceived();
+                result.setReceived(index + 1);
+                try {
+                    chunk.add(new Item(index, items.nextValue()));
+                } catch (JsonParseException e) {
+                    result.fail(index, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    result.fail(index, e.getOriginalMessage());
+                    continue;
+                }
+
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, importerId, result);
+                    chunk.clear();
+                }
+            }
+        }
+        importChunk(chunk, importerId, result);
+
+        result.getErrors().sort(Comparator.comparingInt(TaskImportResult.ItemError::index));
+        return result;
+    }
+
+    private boolean hasNext(MappingIterator<TaskImportItem> items, TaskImportResult result) throws IOException {
+        try {
+            return items.hasNextValue();
+        } catch (JsonParseException e) {
+            result.fail(result.getReceived(), "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            return false;
+        }
+    }
+
+    private void importChunk(List<Item> chunk, Long importerId, TaskImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<Task> created = List.of();
+        String batchError = null;
+        try {
+            created = transactionTemplate.execute(status -> insert(chunk, importerId));
+        } catch (RuntimeException e) {
+            log.warn("Bulk import of {} tasks failed", chunk.size(), e);
+            batchError = "Batch failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        }
+
+        for (Item item : chunk) {
+            if (item.error != null || batchError != null) {
+                result.fail(item.index, item.error != null ? item.error : batchError);
+            }
+        }
+        result.setCreated(result.getCreated() + created.size());
+        for (Task task : created) {
+            eventPublisher.publishEvent(TaskTextChangedEvent.of(task));
+            task.getComments().forEach(comment -> eventPublisher.publishEvent(TaskTextChangedEvent.of(comment)));
+            eventPublisher.publishEvent(TaskChangedEvent.created(task));
+        }
+    }
+
+    private List<Task> insert(List<Item> chunk, Long importerId) {
+        Map<Long, User> users = userRepository.findAllById(userIds(chunk, importerId)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Task> created = new ArrayList<>(chunk.size());
+        for (Item item : chunk) {
+            item.error = validate(item.task, users);
+            if (item.error == null) {
+                created.add(persist(item.task, users, importerId));
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return created;
+    }
+
+    private Task persist(TaskImportItem item, Map<Long, User> users, Long importerId) {
+        Task task = new Task();
+        task.setTitle(item.getTitle());
+        task.setDescription(item.getDescription());
+        task.setStatus(item.getStatus());
+        task.setPriority(item.getPriority());
+        task.setAuthor(users.get(item.getAuthorId() != null ? item.getAuthorId() : importerId));
+        task.setAssignee(item.getAssigneeId() != null ? users.get(item.getAssigneeId()) : null);
+
+        List<Comment> comments = new ArrayList<>();
+        if (item.getComments() != null) {
+            for (String text : item.getComments()) {
+                Comment comment = new Comment();
+                comment.setText(text);
+                comment.setAuthor(task.getAuthor());
+                comment.setTask(task);
+                comments.add(comment);
+            }
+        }
+        task.setComments(comments);
+        task.setCommentCount(comments.size());
+
+        entityManager.persist(task);
+        return task;
+    }
+
+    private String validate(TaskImportItem item, Map<Long, User> users) {
+        Set<ConstraintViolation<TaskImportItem>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (item.getAuthorId() != null && !users.containsKey(item.getAuthorId())) {
+            return "Author " + item.getAuthorId() + " not found";
+        }
+        if (item.getAssigneeId() != null && !users.containsKey(item.getAssigneeId())) {
+            return "Assignee " + item.getAssigneeId() + " not found";
+        }
+        return null;
+    }
+
+    private static Set<Long> userIds(List<Item> chunk, Long importerId) {
+        Set<Long> ids = new HashSet<>();
+        ids.add(importerId);
+        for (Item item : chunk) {
+            if (item.task.getAuthorId() != null) {
+                ids.add(item.task.getAuthorId());
+            }
+            if (item.task.getAssigneeId() != null) {
+                ids.add(item.task.getAssigneeId());
+            }
+        }
+        return ids;
+    }
+
+    private static final class Item {
+
+        private final int index;
+        private final TaskImportItem task;
+        private String error;
+
+        private Item(int index, TaskImportItem task) {
+            this.index = index;
+            this.task = task;
+        }
+    }
+}
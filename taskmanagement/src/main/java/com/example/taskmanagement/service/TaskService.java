@@ -1,43 +1,100 @@
 package com.example.taskmanagement.service;
 
+import com.example.taskmanagement.dto.CommentSummary;
+import com.example.taskmanagement.dto.CountMode;
+import com.example.taskmanagement.dto.CursorPage;
+import com.example.taskmanagement.dto.KeysetCursor;
+import com.example.taskmanagement.dto.TaskBulkUpdate;
+import com.example.taskmanagement.dto.TaskBulkUpdateResult;
+import com.example.taskmanagement.dto.TaskChange;
+import com.example.taskmanagement.dto.TaskFilter;
 import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.dto.TaskTransition;
 import com.example.taskmanagement.entity.Comment;
 import com.example.taskmanagement.entity.Task;
 import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TaskTextChangedEvent;
 import com.example.taskmanagement.mapper.TaskMapper;
 import com.example.taskmanagement.repository.CommentRepository;
+import com.example.taskmanagement.repository.TaskCountEstimator;
 import com.example.taskmanagement.repository.TaskRepository;
 import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.search.TaskSearchIndex;
+import com.example.taskmanagement.security.UserCache;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.LongSupplier;
 
 @Service
 @AllArgsConstructor
 public class TaskService {
 
+    private static final int MAX_BULK_TASKS = 10_000;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final TaskMapper taskMapper;
+    private final UserCache userCache;
+    private final TaskCountEstimator taskCountEstimator;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskCache taskCache;
 
     public TaskResponse createTask(Task task, String email) {
-        User user = userRepository.findByEmail(email).orElseThrow();
+        User user = userCache.getByEmail(email);
         task.setAuthor(user);
         taskRepository.save(task);
+        eventPublisher.publishEvent(TaskTextChangedEvent.of(task));
+        eventPublisher.publishEvent(TaskChangedEvent.created(task));
 
         return taskMapper.fromTask(task);
     }
 
     public TaskResponse updateTask(Long taskId, Task updatedTask) {
+        return updateTask(taskId, updatedTask, null);
+    }
+
+    /**
+     * Replaces the editable fields of the task. With {@code expectedVersion} set the update is
+     * refused unless the task is still at that version.
+     */
+    @Transactional
+    public TaskResponse updateTask(Long taskId, Task updatedTask, Long expectedVersion) {
         Task task = taskRepository.findById(taskId).orElseThrow();
+        if (expectedVersion != null && task.getVersion() != expectedVersion) {
+            throw versionConflict(taskId, task.getVersion(), expectedVersion);
+        }
 
+        Task.Status previousStatus = task.getStatus();
+        Task.Priority previousPriority = task.getPriority();
+        String previousAssignee = task.getAssignee() != null ? task.getAssignee().getEmail() : null;
         task.setTitle(updatedTask.getTitle());
         task.setDescription(updatedTask.getDescription());
         task.setStatus(updatedTask.getStatus());
         task.setPriority(updatedTask.getPriority());
-        taskRepository.save(task);
+        taskRepository.saveAndFlush(task);
+        eventPublisher.publishEvent(TaskTextChangedEvent.of(task));
+        eventPublisher.publishEvent(TaskChangedEvent.updated(task, previousStatus, previousPriority, previousAssignee));
 
         return taskMapper.fromTask(task);
     }
@@ -45,77 +102,317 @@ public class TaskService {
     public void deleteTask(Long taskId) {
         Task task = taskRepository.findById(taskId).orElseThrow();
         taskRepository.delete(task);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(task));
+    }
+
+    public TaskResponse getTask(Long taskId) {
+        return taskCache.get(taskId, this::loadTask);
+    }
+
+    /**
+     * Reads only the version column, enough to answer a conditional GET without loading the task,
+     * and not even that when the task is cached.
+     */
+    public long getTaskVersion(Long taskId) {
+        TaskResponse cached = taskCache.getIfPresent(taskId);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        return taskRepository.findVersionById(taskId)
+                .orElseThrow(() -> new NoSuchElementException("Task not found"));
+    }
+
+    private TaskResponse loadTask(Long taskId) {
+        List<TaskSummary> summaries = taskRepository.findSummariesByIds(List.of(taskId));
+        if (summaries.isEmpty()) {
+            throw new NoSuchElementException("Task not found");
+        }
+        return taskMapper.fromSummaries(summaries, commentsOf(summaries)).get(0);
     }
 
     public Page<TaskResponse> getAllTasks(Pageable pageable) {
-        return taskMapper.fromAll(taskRepository.findAll(pageable));
+        return getTasks(new TaskFilter(), pageable, CountMode.EXACT);
+    }
+
+    public Page<TaskResponse> getAllTasks(Pageable pageable, CountMode countMode) {
+        return getTasks(new TaskFilter(), pageable, countMode);
     }
 
 
     public Page<TaskResponse> getTasksByAuthor(Long authorId, Pageable pageable) {
-        User user = userRepository.findById(authorId).orElseThrow();
-        return taskMapper.fromAll(taskRepository.findByAuthorId(authorId, pageable));
+        return getTasks(TaskFilter.byAuthor(authorId), pageable, CountMode.EXACT);
+    }
+
+    public Page<TaskResponse> getTasksByAuthor(Long authorId, Pageable pageable, CountMode countMode) {
+        return getTasks(TaskFilter.byAuthor(authorId), pageable, countMode);
     }
 
     public Page<TaskResponse> getTasksByAssignee(Long assigneeId, Pageable pageable) {
-        User user = userRepository.findById(assigneeId).orElseThrow();
-        return taskMapper.fromAll(taskRepository.findByAssigneeId(assigneeId, pageable));
+        return getTasks(TaskFilter.byAssignee(assigneeId), pageable, CountMode.EXACT);
     }
 
+    public Page<TaskResponse> getTasksByAssignee(Long assigneeId, Pageable pageable, CountMode countMode) {
+        return getTasks(TaskFilter.byAssignee(assigneeId), pageable, countMode);
+    }
 
-    public TaskResponse assignTask(Long taskId, Long assigneeId) {
-        Task task = taskRepository.findById(taskId).orElseThrow(() -> new RuntimeException("Task not found"));
-        User assignee = userRepository.findById(assigneeId).orElseThrow(() -> new RuntimeException("User not found"));
+    public Page<TaskResponse> getTasks(TaskFilter filter, Pageable pageable, CountMode countMode) {
+        requireSortable(pageable.getSort());
+        requireUsers(filter);
+        return switch (countMode) {
+            case EXACT -> withComments(taskRepository.findSummaries(filter, pageable));
+            case NONE -> withComments(taskRepository.sliceSummaries(filter, pageable), () -> -1);
+            case ESTIMATE -> withComments(taskRepository.sliceSummaries(filter, pageable),
+                    () -> estimateOrCount(taskCountEstimator.estimate(filter),
+                            () -> taskRepository.countSummaries(filter)));
+        };
+    }
 
-        task.setAssignee(assignee);
-        return taskMapper.fromTask(taskRepository.save(task));
+    /**
+     * Full-text search over titles, descriptions and comments. Results come in relevance order,
+     * so the sort of {@code pageable} is ignored.
+     */
+    public Page<TaskResponse> searchTasks(String query, Pageable pageable) {
+        TaskSearchIndex.Hits hits = taskSearchIndex.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits.taskIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+
+        // the index may briefly point at a task that has just been deleted, such ids are skipped
+        List<Long> ids = hits.taskIds();
+        List<TaskSummary> summaries = taskRepository.findSummariesByIds(ids).stream()
+                .sorted(Comparator.comparingInt(summary -> ids.indexOf(summary.getId())))
+                .toList();
+
+        List<TaskResponse> content = taskMapper.fromSummaries(summaries, commentsOf(summaries));
+        return new PageImpl<>(content, pageable, hits.total());
     }
 
-    public TaskResponse updatePriority(Long taskId, Task.Priority newPriority, String email) {
-        Task task = taskRepository.findById(taskId).orElseThrow(() -> new RuntimeException("Task not found"));
+    public void rebuildSearchIndex() {
+        taskSearchIndex.rebuildAsync();
+    }
 
-        if (!isAuthorized(email, task)) {
-            throw new RuntimeException("Access denied");
+    public CursorPage<TaskResponse> scrollTasks(TaskFilter filter, KeysetCursor cursor, int size) {
+        requireUsers(filter);
+
+        List<TaskSummary> rows = taskRepository.findSummariesAfter(filter, cursor, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<TaskSummary> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursor.after(content.get(content.size() - 1)).encode() : null;
+
+        List<TaskResponse> responses = taskMapper.fromSummaries(content, commentsOf(content));
+        return new CursorPage<>(responses, size, hasNext, nextCursor);
+    }
+
+    private Page<TaskResponse> withComments(Page<TaskSummary> summaries) {
+        return taskMapper.fromSummaries(summaries, commentsOf(summaries.getContent()));
+    }
+
+    /**
+     * Turns a slice into a page without running {@code COUNT(*)}. The total is only asked for while
+     * there are more rows; on the last slice it is known exactly. A negative total means unknown,
+     * in which case the page reports just enough elements to keep {@code hasNext} correct.
+     */
+    private Page<TaskResponse> withComments(Slice<TaskSummary> slice, LongSupplier total) {
+        long seen = slice.getPageable().isPaged()
+                ? slice.getPageable().getOffset() + slice.getNumberOfElements()
+                : slice.getNumberOfElements();
+        long totalElements = slice.hasNext() ? Math.max(total.getAsLong(), seen + 1) : seen;
+
+        List<TaskResponse> content = taskMapper.fromSummaries(slice.getContent(), commentsOf(slice.getContent()));
+        return new PageImpl<>(content, slice.getPageable(), totalElements);
+    }
+
+    private static long estimateOrCount(long estimate, LongSupplier count) {
+        return estimate >= 0 ? estimate : count.getAsLong();
+    }
+
+    private List<CommentSummary> commentsOf(List<TaskSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+        List<Long> taskIds = summaries.stream().map(TaskSummary::getId).toList();
+        return commentRepository.findPreviewsByTaskIds(taskIds, taskMapper.getCommentPreviewSize());
+    }
+
+    private static void requireSortable(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!TaskRepository.SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort tasks by " + order.getProperty());
+            }
+        }
+    }
+
+    private void requireUsers(TaskFilter filter) {
+        if (filter.getAuthorId() != null && !userRepository.existsById(filter.getAuthorId())) {
+            throw new NoSuchElementException("User not found");
+        }
+        if (filter.getAssigneeId() != null && !userRepository.existsById(filter.getAssigneeId())) {
+            throw new NoSuchElementException("User not found");
+        }
+    }
+
+
+    /**
+     * Applies one change to many tasks in a single statement. ADMIN may change anything; other
+     * users may only change the status of tasks assigned to them, other selected tasks are
+     * silently left out. A selection by ids or by filter may cover at most
+     * {@value #MAX_BULK_TASKS} tasks, a larger one is rejected without changing anything.
+     */
+    @Transactional
+    public TaskBulkUpdateResult bulkUpdate(TaskBulkUpdate update, String email) {
+        if (!update.hasChanges()) {
+            throw new IllegalArgumentException("Nothing to change");
+        }
+        boolean hasIds = update.getIds() != null && !update.getIds().isEmpty();
+        if (!hasIds && (update.getFilter() == null || update.getFilter().isEmpty())) {
+            throw new IllegalArgumentException("Tasks must be selected by ids or filter");
+        }
+        if (hasIds && update.getIds().size() > MAX_BULK_TASKS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_TASKS + " ids can be updated at once");
+        }
+
+        User user = userCache.getByEmail(email);
+        boolean admin = user.getRole() == User.Role.ADMIN;
+        if (!admin && (update.getPriority() != null || update.getAssigneeId() != null)) {
+            throw new AccessDeniedException("Only ADMIN can change priority or assignee");
         }
+        if (update.getAssigneeId() != null && !userRepository.existsById(update.getAssigneeId())) {
+            throw new NoSuchElementException("User not found");
+        }
+
+        // one row more than allowed tells a selection that is too large from one that just fits
+        List<TaskTransition> transitions = taskRepository.bulkUpdate(update, admin ? null : user.getId(),
+                MAX_BULK_TASKS + 1, user.getEmail());
+        if (transitions.size() > MAX_BULK_TASKS) {
+            // rolls back the transaction of this method, so nothing stays updated
+            throw new IllegalArgumentException("More than " + MAX_BULK_TASKS + " tasks selected, narrow the selection");
+        }
+        transitions.forEach(transition -> eventPublisher.publishEvent(TaskChangedEvent.bulkUpdated(transition)));
 
-        task.setPriority(newPriority);
-        return taskMapper.fromTask(taskRepository.save(task));
+        List<Long> ids = transitions.stream().map(transition -> transition.task().getId()).toList();
+        return new TaskBulkUpdateResult(ids.size(), ids);
+    }
+
+    public TaskResponse assignTask(Long taskId, Long assigneeId) {
+        return assignTask(taskId, assigneeId, null);
     }
 
+    public TaskResponse assignTask(Long taskId, Long assigneeId, Long expectedVersion) {
+        TaskChange change = new TaskChange();
+        change.setAssigneeId(assigneeId);
+        try {
+            return update(taskId, change, null, expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            // the assignee foreign key is checked by the update itself
+            throw new RuntimeException("User not found");
+        }
+    }
+
+    public TaskResponse updatePriority(Long taskId, Task.Priority newPriority, String email) {
+        return updatePriority(taskId, newPriority, email, null);
+    }
 
+    public TaskResponse updatePriority(Long taskId, Task.Priority newPriority, String email, Long expectedVersion) {
+        TaskChange change = new TaskChange();
+        change.setPriority(newPriority);
+        return update(taskId, change, userCache.getByEmail(email), expectedVersion);
+    }
+
+
+    @Transactional
     public Comment addComment(Long taskId, String text, String email) {
         Task task = taskRepository.findById(taskId).orElseThrow(() -> new RuntimeException("Task not found"));
+        User user = userCache.getByEmail(email);
 
-        if (!isAuthorized(email, task)) {
+        if (!isAuthorized(user, task)) {
             throw new RuntimeException("Access denied");
         }
 
         Comment comment = new Comment();
         comment.setText(text);
-        comment.setAuthor(userRepository.findByEmail(email).orElseThrow());
+        comment.setAuthor(user);
         comment.setTask(task);
         commentRepository.save(comment);
+        taskRepository.incrementCommentCount(taskId);
+        eventPublisher.publishEvent(TaskTextChangedEvent.of(comment));
+        // incrementCommentCount bumped the version in the database, not in this copy
+        eventPublisher.publishEvent(TaskChangedEvent.commented(task, task.getVersion() + 1));
 
         return comment;
     }
 
 
+    public CursorPage<CommentSummary> getComments(Long taskId, Long afterId, int size) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new NoSuchElementException("Task not found");
+        }
+
+        List<CommentSummary> rows = commentRepository.findSummariesAfter(taskId, afterId, Limit.of(size + 1));
+        boolean hasNext = rows.size() > size;
+        List<CommentSummary> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? String.valueOf(content.get(content.size() - 1).getId()) : null;
+
+        return new CursorPage<>(content, size, hasNext, nextCursor);
+    }
+
+
     public TaskResponse updateStatus(Long taskId, Task.Status newStatus, String email) {
-        Task task = taskRepository.findById(taskId).orElseThrow(() -> new RuntimeException("Task not found"));
+        return updateStatus(taskId, newStatus, email, null);
+    }
 
-        if (!isAuthorized(email, task)) {
-            throw new RuntimeException("Access denied");
+    public TaskResponse updateStatus(Long taskId, Task.Status newStatus, String email, Long expectedVersion) {
+        TaskChange change = new TaskChange();
+        change.setStatus(newStatus);
+        return update(taskId, change, userCache.getByEmail(email), expectedVersion);
+    }
+
+    /**
+     * Applies the change with one conditional {@code UPDATE}: the version check and the
+     * {@link #isAuthorized} rule are predicates of the statement, so concurrent changes can't
+     * overwrite each other and the task is not read beforehand. Only when nothing was updated
+     * is the task loaded, to tell the caller why. Without {@code expectedVersion} the caller set
+     * no precondition, so an update that lost a race is tried once more, and reported as a
+     * conflict if it loses again.
+     */
+    private TaskResponse update(Long taskId, TaskChange change, User user, Long expectedVersion) {
+        Long assigneeId = user != null && user.getRole() != User.Role.ADMIN ? user.getId() : null;
+
+        Optional<TaskTransition> updated = taskRepository.updateIfMatches(taskId, change, expectedVersion, assigneeId);
+        if (updated.isEmpty()) {
+            rejectUpdate(taskId, user, expectedVersion);
+            updated = taskRepository.updateIfMatches(taskId, change, null, assigneeId);
         }
+        TaskTransition transition = updated
+                .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Task.class, taskId));
+        eventPublisher.publishEvent(TaskChangedEvent.updated(transition));
+
+        TaskSummary summary = transition.task();
+        return taskMapper.fromSummaries(List.of(summary), commentsOf(List.of(summary))).get(0);
+    }
 
-        task.setStatus(newStatus);
-        return taskMapper.fromTask(taskRepository.save(task));
+    /**
+     * Throws why the update was refused. Returns only if the task can be updated after all, which
+     * means it changed while the update ran, for instance it was just assigned to the user.
+     */
+    private void rejectUpdate(Long taskId, User user, Long expectedVersion) {
+        Task task = taskRepository.findById(taskId).orElseThrow(() -> new RuntimeException("Task not found"));
+        if (user != null && !isAuthorized(user, task)) {
+            throw new RuntimeException("Access denied");
+        }
+        if (expectedVersion != null) {
+            throw versionConflict(taskId, task.getVersion(), expectedVersion);
+        }
     }
 
+    private static OptimisticLockingFailureException versionConflict(Long taskId, long version, Long expectedVersion) {
+        return new OptimisticLockingFailureException(
+                "Task " + taskId + " is at version " + version + ", expected " + expectedVersion);
+    }
 
-    public boolean isAuthorized(String email, Task task) {
-        User user = userRepository.findByEmail(email).orElseThrow();
-        return user.getRole() == User.Role.ADMIN || task.getAssignee().getEmail().equals(user.getEmail());
 
+    public boolean isAuthorized(User user, Task task) {
+        return user.getRole() == User.Role.ADMIN
+                || task.getAssignee() != null && task.getAssignee().getEmail().equals(user.getEmail());
     }
 
 
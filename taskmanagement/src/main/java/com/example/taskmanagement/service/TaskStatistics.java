@@ -0,0 +1,255 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskCount;
+import com.example.taskmanagement.dto.TaskStats;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.security.UserCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Task counts by status and priority, overall and per author and assignee, kept in memory so that
+ * reading them costs the same whatever the size of the task table.
+ * <p>
+ * The counters follow the {@link TaskChangedEvent}s of {@code TaskService}: a new task is added
+ * to its cell, a deleted one removed, and an update moves the task from its previous status,
+ * priority and assignee to the new ones. Every {@code app.tasks.stats.reconcile-interval} (and at
+ * startup) the counts are taken from the database and the counters are corrected by the
+ * difference to what they held right before the count started. A change committed after the
+ * database snapshot is kept. The listeners run after commit, so a change whose listener has not
+ * run yet when the counters are read is counted twice, as is one committing between that read
+ * and the snapshot. That drift is small and is corrected by the next run.
+ */
+@Slf4j
+@Component
+public class TaskStatistics {
+
+    private static final Task.Status[] STATUSES = Task.Status.values();
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    /**
+     * One cell per status and priority, plus one for "not set" in each dimension.
+     */
+    private static final int CELLS = (STATUSES.length + 1) * (PRIORITIES.length + 1);
+
+    private final TaskRepository taskRepository;
+    private final UserCache userCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counters total = new Counters();
+    private final ConcurrentMap<String, Counters> byAuthor = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counters> byAssignee = new ConcurrentHashMap<>();
+
+    public TaskStatistics(TaskRepository taskRepository, UserCache userCache,
+                          PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.userCache = userCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // both counts must see the same tasks
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Counts of the tasks assigned to or authored by the given user, or of all tasks when both
+     * ids are {@code null}.
+     */
+    public TaskStats getStats(Long assigneeId, Long authorId) {
+        if (assigneeId != null && authorId != null) {
+            throw new IllegalArgumentException("Stats are per assignee or per author, not both");
+        }
+        if (assigneeId != null) {
+            return byAssignee.getOrDefault(userCache.getEmail(assigneeId), Counters.EMPTY).toStats();
+        }
+        if (authorId != null) {
+            return byAuthor.getOrDefault(userCache.getEmail(authorId), Counters.EMPTY).toStats();
+        }
+        return total.toStats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> add(event.author(), event.assignee(), event.status(), event.priority(), 1);
+            case DELETED -> add(event.author(), event.assignee(), event.status(), event.priority(), -1);
+            case UPDATED -> {
+                if (event.status() != event.previousStatus() || event.priority() != event.previousPriority()
+                        || !equals(event.assignee(), event.previousAssignee())) {
+                    add(event.author(), event.previousAssignee(), event.previousStatus(), event.previousPriority(), -1);
+                    add(event.author(), event.assignee(), event.status(), event.priority(), 1);
+                }
+            }
+            case COMMENTED -> {
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.stats.reconcile-interval:600000}")
+    public void reconcile() {
+        long[] totalBefore = new long[CELLS];
+        Map<String, long[]> authorsBefore = new HashMap<>();
+        Map<String, long[]> assigneesBefore = new HashMap<>();
+
+        List<List<TaskCount>> counts = transactionTemplate.execute(status -> {
+            // read right before the first count takes the database snapshot, to keep the window small
+            System.arraycopy(total.values(), 0, totalBefore, 0, CELLS);
+            authorsBefore.putAll(values(byAuthor));
+            assigneesBefore.putAll(values(byAssignee));
+            return List.of(taskRepository.countByAuthor(), taskRepository.countByAssignee());
+        });
+
+        Map<String, long[]> authors = cells(counts.get(0));
+        long[] totalNow = new long[CELLS];
+        authors.values().forEach(cells -> {
+            for (int i = 0; i < CELLS; i++) {
+                totalNow[i] += cells[i];
+            }
+        });
+        authors.remove(null);
+
+        long corrected = total.correct(totalNow, totalBefore)
+                + correct(byAuthor, authors, authorsBefore)
+                + correct(byAssignee, cells(counts.get(1)), assigneesBefore);
+        if (corrected > 0) {
+            log.info("Task statistics reconciled with the database, {} counts corrected", corrected);
+        }
+    }
+
+    private void add(String author, String assignee, Task.Status status, Task.Priority priority, long delta) {
+        int cell = cell(status, priority);
+        total.add(cell, delta);
+        if (author != null) {
+            byAuthor.computeIfAbsent(author, key -> new Counters()).add(cell, delta);
+        }
+        if (assignee != null) {
+            byAssignee.computeIfAbsent(assignee, key -> new Counters()).add(cell, delta);
+        }
+    }
+
+    private static long correct(ConcurrentMap<String, Counters> counters, Map<String, long[]> now,
+                                Map<String, long[]> before) {
+        Set<String> users = new HashSet<>(now.keySet());
+        users.addAll(before.keySet());
+
+        long corrected = 0;
+        for (String user : users) {
+            long[] cellsNow = now.getOrDefault(user, new long[CELLS]);
+            long[] cellsBefore = before.getOrDefault(user, new long[CELLS]);
+            corrected += counters.computeIfAbsent(user, key -> new Counters()).correct(cellsNow, cellsBefore);
+        }
+        return corrected;
+    }
+
+    private static Map<String, long[]> values(Map<String, Counters> counters) {
+        Map<String, long[]> values = new HashMap<>();
+        counters.forEach((user, userCounters) -> values.put(user, userCounters.values()));
+        return values;
+    }
+
+    private static Map<String, long[]> cells(List<TaskCount> counts) {
+        Map<String, long[]> cells = new HashMap<>();
+        for (TaskCount count : counts) {
+            cells.computeIfAbsent(count.user(), key -> new long[CELLS])[cell(count.status(), count.priority())] += count.count();
+        }
+        return cells;
+    }
+
+    private static int cell(Task.Status status, Task.Priority priority) {
+        int row = status != null ? status.ordinal() : STATUSES.length;
+        int column = priority != null ? priority.ordinal() : PRIORITIES.length;
+        return row * (PRIORITIES.length + 1) + column;
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static final class Counters {
+
+        static final Counters EMPTY = new Counters();
+
+        private final LongAdder[] cells = new LongAdder[CELLS];
+
+        Counters() {
+            for (int i = 0; i < CELLS; i++) {
+                cells[i] = new LongAdder();
+            }
+        }
+
+        void add(int cell, long delta) {
+            cells[cell].add(delta);
+        }
+
+        long[] values() {
+            long[] values = new long[CELLS];
+            for (int i = 0; i < CELLS; i++) {
+                values[i] = cells[i].sum();
+            }
+            return values;
+        }
+
+        /**
+         * Moves every cell by the difference between the database count and the value it had
+         * when the count started; changes made since then stay counted.
+         */
+        long correct(long[] now, long[] before) {
+            long corrected = 0;
+            for (int i = 0; i < CELLS; i++) {
+                long delta = now[i] - before[i];
+                if (delta != 0) {
+                    cells[i].add(delta);
+                    corrected += Math.abs(delta);
+                }
+            }
+            return corrected;
+        }
+
+        TaskStats toStats() {
+            long[] values = values();
+            long total = 0;
+            Map<Task.Status, Long> byStatus = new EnumMap<>(Task.Status.class);
+            Map<Task.Priority, Long> byPriority = new EnumMap<>(Task.Priority.class);
+            Map<Task.Status, Map<Task.Priority, Long>> byStatusAndPriority = new EnumMap<>(Task.Status.class);
+            for (Task.Status status : STATUSES) {
+                byStatus.put(status, 0L);
+                byStatusAndPriority.put(status, new EnumMap<>(Task.Priority.class));
+            }
+            for (Task.Priority priority : PRIORITIES) {
+                byPriority.put(priority, 0L);
+            }
+
+            for (int row = 0; row <= STATUSES.length; row++) {
+                for (int column = 0; column <= PRIORITIES.length; column++) {
+                    long count = values[row * (PRIORITIES.length + 1) + column];
+                    total += count;
+                    if (row < STATUSES.length) {
+                        byStatus.merge(STATUSES[row], count, Long::sum);
+                    }
+                    if (column < PRIORITIES.length) {
+                        byPriority.merge(PRIORITIES[column], count, Long::sum);
+                    }
+                    if (row < STATUSES.length && column < PRIORITIES.length) {
+                        byStatusAndPriority.get(STATUSES[row]).put(PRIORITIES[column], count);
+                    }
+                }
+            }
+            return new TaskStats(total, byStatus, byPriority, byStatusAndPriority);
+        }
+    }
+}
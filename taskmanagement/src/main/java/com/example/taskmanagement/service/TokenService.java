@@ -0,0 +1,107 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TokenResponse;
+import com.example.taskmanagement.entity.RefreshSession;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.jwt.JWTUtils;
+import com.example.taskmanagement.repository.RefreshSessionRepository;
+import com.example.taskmanagement.security.TokenRevocationRegistry;
+import com.example.taskmanagement.security.UserCache;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Logins as refresh sessions. A login checks the password once and returns a short-lived access
+ * token and a refresh token; afterwards clients trade the refresh token for a new pair, which
+ * costs a signature check and one conditional {@code UPDATE} instead of a BCrypt hash. The
+ * session ends after {@code app.jwt.refresh-ttl}, on logout, or when the user's tokens are revoked.
+ * <p>
+ * Refresh tokens rotate: each one is accepted once. Presenting an already used one means it was
+ * copied, so the whole session is revoked and its holder has to log in again.
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    private static final String TOKEN_TYPE = "Bearer";
+
+    private final UserService userService;
+    private final UserCache userCache;
+    private final JWTUtils jwtUtils;
+    private final RefreshSessionRepository refreshSessionRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final Duration refreshTtl;
+
+    public TokenService(UserService userService, UserCache userCache, JWTUtils jwtUtils,
+                        RefreshSessionRepository refreshSessionRepository,
+                        TokenRevocationRegistry tokenRevocationRegistry,
+                        @Value("${app.jwt.refresh-ttl:30d}") Duration refreshTtl) {
+        this.userService = userService;
+        this.userCache = userCache;
+        this.jwtUtils = jwtUtils;
+        this.refreshSessionRepository = refreshSessionRepository;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.refreshTtl = refreshTtl;
+    }
+
+    public TokenResponse login(String email, String password, String clientIp) {
+        User user = userService.authenticate(email, password, clientIp);
+
+        RefreshSession session = new RefreshSession();
+        session.setId(UUID.randomUUID());
+        session.setUserId(user.getId());
+        session.setGeneration(0);
+        session.setExpiresAt(Instant.now().plus(refreshTtl));
+        refreshSessionRepository.save(session);
+
+        return tokens(user, session.getId(), 0, session.getExpiresAt());
+    }
+
+    public TokenResponse refresh(String refreshToken) {
+        Claims claims = verify(refreshToken);
+        UUID sessionId = JWTUtils.sessionId(claims);
+        int generation = claims.get(JWTUtils.GENERATION_CLAIM, Integer.class);
+
+        User user = userCache.getByEmail(claims.getSubject());
+        if (!user.getId().equals(claims.get(JWTUtils.USER_ID_CLAIM, Long.class))
+                || user.getTokenVersion() != claims.get(JWTUtils.TOKEN_VERSION_CLAIM, Integer.class)) {
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+
+        if (refreshSessionRepository.rotate(sessionId, generation, Instant.now()) == 0) {
+            refreshSessionRepository.findById(sessionId)
+                    .filter(session -> session.getRevokedAt() == null && session.getGeneration() > generation)
+                    .ifPresent(session -> {
+                        log.warn("Refresh token of session {} was used twice, revoking the session", sessionId);
+                        tokenRevocationRegistry.revoke(sessionId);
+                    });
+            throw new BadCredentialsException("Refresh token is no longer valid");
+        }
+        return tokens(user, sessionId, generation + 1, claims.getExpiration().toInstant());
+    }
+
+    public void logout(String refreshToken) {
+        tokenRevocationRegistry.revoke(JWTUtils.sessionId(verify(refreshToken)));
+    }
+
+    private Claims verify(String refreshToken) {
+        Claims claims = refreshToken != null ? jwtUtils.verifyRefreshToken(refreshToken) : null;
+        if (claims == null) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return claims;
+    }
+
+    private TokenResponse tokens(User user, UUID sessionId, int generation, Instant expiresAt) {
+        return new TokenResponse(jwtUtils.generateAccessToken(user, sessionId),
+                jwtUtils.generateRefreshToken(user, sessionId, generation, expiresAt),
+                TOKEN_TYPE, jwtUtils.getAccessTtl().toSeconds());
+    }
+}
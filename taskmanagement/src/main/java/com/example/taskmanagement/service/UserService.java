@@ -2,29 +2,89 @@ package com.example.taskmanagement.service;
 
 import com.example.taskmanagement.entity.User;
 import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.security.PasswordHashingExecutor;
+import com.example.taskmanagement.security.TokenVersionRegistry;
+import com.example.taskmanagement.security.UserCache;
+import com.example.taskmanagement.security.UserPrincipal;
 import lombok.AllArgsConstructor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 
+/**
+ * Passwords are hashed and checked on the {@link PasswordHashingExecutor}, never on the request thread.
+ */
 @Service
 @AllArgsConstructor
-public class UserService {
+public class UserService implements UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserCache userCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
 
-    public User register(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+    public User register(User user, String clientIp) {
+        String password = user.getPassword();
+        user.setPassword(passwordHashingExecutor.execute(clientIp, user.getEmail(), () -> passwordEncoder.encode(password)));
+        user.setTokenVersion(0);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getEmail());
+        tokenVersionRegistry.update(saved);
+        return saved;
     }
 
-    public User authenticate(String email, String password) {
-        return userRepository.findByEmail(email)
-                .filter(u -> passwordEncoder.matches(password, u.getPassword()))
-                .orElseThrow(() -> new RuntimeException("Invalid credentials"));
+    /**
+     * Checks the password and, when the stored hash is weaker than the encoder's current strength,
+     * replaces it with a new hash of the password while it is at hand.
+     */
+    public User authenticate(String email, String password, String clientIp) {
+        return passwordHashingExecutor.execute(clientIp, email, () -> userRepository.findByEmail(email)
+                .filter(u -> password != null && passwordEncoder.matches(password, u.getPassword()))
+                .map(u -> passwordEncoder.upgradeEncoding(u.getPassword()) ? rehash(u, passwordEncoder.encode(password)) : u)
+                .orElseThrow(() -> new BadCredentialsException("Invalid credentials")));
+    }
+
+    /**
+     * Stores the stronger hash made by a successful HTTP Basic login.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User stored = userRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return new UserPrincipal(rehash(stored, newPassword));
+    }
+
+    public User changeRole(Long userId, User.Role role) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        user.setRole(role);
+        return revokeTokens(user);
+    }
+
+    public User revokeTokens(Long userId) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        return revokeTokens(user);
+    }
+
+    private User rehash(User user, String encodedPassword) {
+        user.setPassword(encodedPassword);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getEmail());
+        return saved;
+    }
+
+    private User revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getEmail());
+        tokenVersionRegistry.update(saved);
+        return saved;
     }
 
 
@@ -0,0 +1,47 @@
+-- Schema previously created by hibernate ddl-auto. Every statement is idempotent so that
+-- databases created that way are adopted as they are (see spring.flyway.baseline-on-migrate).
+
+create table if not exists "user"
+(
+    id            bigint generated by default as identity primary key,
+    email         varchar(255) not null,
+    password      varchar(255) not null,
+    role          varchar(255) check (role in ('USER', 'ADMIN')),
+    token_version integer default 0 not null,
+    constraint uk_user_email unique (email)
+);
+
+alter table "user" add column if not exists token_version integer default 0 not null;
+
+create table if not exists task
+(
+    id            bigint generated by default as identity primary key,
+    title         varchar(255) not null,
+    description   varchar(500),
+    status        varchar(255) check (status in ('WAITING', 'IN_PROGRESS', 'COMPLETED')),
+    priority      varchar(255) check (priority in ('HIGH', 'MEDIUM', 'LOW')),
+    author_id     bigint,
+    assignee_id   bigint,
+    comment_count integer default 0 not null,
+    constraint fk_task_author foreign key (author_id) references "user" (id),
+    constraint fk_task_assignee foreign key (assignee_id) references "user" (id)
+);
+
+alter table task add column if not exists comment_count integer default 0 not null;
+
+create table if not exists comment
+(
+    id        bigint generated by default as identity primary key,
+    text      varchar(255),
+    author_id bigint,
+    task_id   bigint,
+    constraint fk_comment_author foreign key (author_id) references "user" (id),
+    constraint fk_comment_task foreign key (task_id) references task (id)
+);
+
+-- comment_count was added without backfilling existing comments
+update task t
+set comment_count = c.count
+from (select task_id, count(*) as count from comment group by task_id) c
+where c.task_id = t.id
+  and t.comment_count <> c.count;
@@ -0,0 +1,17 @@
+-- Indexes behind the task list filters (status, priority, author, assignee, title prefix),
+-- keyset paging by title and the comment previews. Built concurrently so that large task
+-- tables stay writable while the migration runs.
+
+create index concurrently if not exists ix_task_status_priority on task (status, priority, id);
+
+create index concurrently if not exists ix_task_priority on task (priority, id);
+
+create index concurrently if not exists ix_task_author_status_priority on task (author_id, status, priority, id);
+
+create index concurrently if not exists ix_task_assignee_status_priority on task (assignee_id, status, priority, id);
+
+create index concurrently if not exists ix_task_title on task (title, id);
+
+create index concurrently if not exists ix_task_title_prefix on task (title text_pattern_ops);
+
+create index concurrently if not exists ix_comment_task on comment (task_id, id);
@@ -0,0 +1,16 @@
+-- Identity columns make Hibernate insert row by row to read back each generated key. Ids now
+-- come from sequences that hand out blocks of 50 (Hibernate's pooled optimizer), so inserts
+-- can be sent in JDBC batches. A block ends at the value returned by nextval, hence the
+-- sequences start 50 above the current maximum id.
+
+create sequence if not exists user_seq increment by 50;
+create sequence if not exists task_seq increment by 50;
+create sequence if not exists comment_seq increment by 50;
+
+select setval('user_seq', coalesce((select max(id) from "user"), 0) + 50, false);
+select setval('task_seq', coalesce((select max(id) from task), 0) + 50, false);
+select setval('comment_seq', coalesce((select max(id) from comment), 0) + 50, false);
+
+alter table "user" alter column id drop identity if exists;
+alter table task alter column id drop identity if exists;
+alter table comment alter column id drop identity if exists;
@@ -0,0 +1,2 @@
+-- optimistic locking version, also used as the ETag of a task
+alter table task add column if not exists version bigint default 0 not null;
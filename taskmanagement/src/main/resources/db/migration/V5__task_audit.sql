@@ -0,0 +1,20 @@
+-- Append-only trail of task changes, written in batches by TaskAuditTrail. Users are kept as
+-- emails and there is no foreign key to task, so the trail outlives deleted tasks and users.
+
+create table if not exists task_audit
+(
+    id                bigserial primary key,
+    task_id           bigint      not null,
+    task_version      bigint      not null,
+    type              varchar(16) not null,
+    changed_at        timestamptz not null,
+    changed_by        varchar(255),
+    status            varchar(32),
+    previous_status   varchar(32),
+    priority          varchar(32),
+    previous_priority varchar(32),
+    assignee          varchar(255),
+    previous_assignee varchar(255)
+);
+
+create index if not exists ix_task_audit_task on task_audit (task_id, id);
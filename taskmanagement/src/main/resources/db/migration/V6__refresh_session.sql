@@ -0,0 +1,17 @@
+-- One row per login. A refresh token is accepted while it carries the current generation of its
+-- session, and every refresh moves the session on to the next one. revoked_at marks a session
+-- ended by logout or by reuse of an old refresh token; its access tokens are refused until they
+-- expire.
+
+create table if not exists refresh_session
+(
+    id         uuid primary key,
+    user_id    bigint      not null references "user" (id) on delete cascade,
+    generation integer     not null,
+    expires_at timestamptz not null,
+    revoked_at timestamptz
+);
+
+create index if not exists ix_refresh_session_expires on refresh_session (expires_at);
+
+create index if not exists ix_refresh_session_revoked on refresh_session (revoked_at) where revoked_at is not null;
@@ -0,0 +1,6 @@
+-- The history of a task is read in the order of the task versions it recorded, which is not the
+-- order in which the rows were inserted.
+
+drop index if exists ix_task_audit_task;
+
+create index if not exists ix_task_audit_task_version on task_audit (task_id, task_version, id);
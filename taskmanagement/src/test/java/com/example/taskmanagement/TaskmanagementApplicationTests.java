@@ -3,7 +3,7 @@ package com.example.taskmanagement;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.search.index-dir=target/search-index")
 class TaskmanagementApplicationTests {
 
     @Test
@@ -0,0 +1,116 @@
+package com.example.taskmanagement.audit;
+
+import com.example.taskmanagement.dto.TaskHistoryEntry;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.repository.TaskAuditRepository;
+import com.example.taskmanagement.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskAuditTrailTest {
+
+    @Mock
+    private TaskAuditRepository taskAuditRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskAuditTrail trail;
+
+    @BeforeEach
+    public void setUp() {
+        trail = new TaskAuditTrail(taskAuditRepository, taskRepository, 5, 2, Duration.ofMillis(200),
+                TaskAuditTrail.Overflow.DROP, Duration.ZERO, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void flush_ShouldWriteQueuedEntriesInBatchesAndDropOverflow() {
+        for (long taskId = 1; taskId <= 6; taskId++) {
+            trail.offer(entry(taskId));
+        }
+
+        assertTrue(trail.flush());
+
+        ArgumentCaptor<List<TaskHistoryEntry>> batches = ArgumentCaptor.forClass(List.class);
+        verify(taskAuditRepository, times(3)).insertAll(batches.capture());
+        assertEquals(List.of(2, 2, 1), batches.getAllValues().stream().map(List::size).toList());
+        assertEquals(1L, batches.getAllValues().get(0).get(0).getTaskId());
+        assertEquals(5, trail.getWritten());
+        assertEquals(1, trail.getDropped());
+        assertEquals(0, trail.getQueued());
+    }
+
+    @Test
+    public void flush_ShouldKeepRefusedBatchForNextFlush() {
+        doThrow(new DataAccessResourceFailureException("down")).doNothing().when(taskAuditRepository).insertAll(anyList());
+        trail.offer(entry(1));
+
+        assertFalse(trail.flush());
+        assertEquals(0, trail.getWritten());
+
+        assertTrue(trail.flush());
+        assertEquals(1, trail.getWritten());
+        verify(taskAuditRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void flush_ShouldDiscardBatchAfterMaxAttempts() {
+        doThrow(new DataAccessResourceFailureException("down")).doThrow(new DataAccessResourceFailureException("down"))
+                .doNothing().when(taskAuditRepository).insertAll(anyList());
+        trail.offer(entry(1));
+        trail.offer(entry(2));
+        trail.offer(entry(3));
+
+        assertFalse(trail.flush());
+        assertFalse(trail.flush());
+        assertEquals(2, trail.getFailed());
+
+        assertTrue(trail.flush());
+        ArgumentCaptor<List<TaskHistoryEntry>> batches = ArgumentCaptor.forClass(List.class);
+        verify(taskAuditRepository, times(3)).insertAll(batches.capture());
+        assertEquals(3L, batches.getValue().get(0).getTaskId());
+        assertEquals(1, trail.getWritten());
+    }
+
+    @Test
+    public void onTaskChanged_ShouldSkipChangesAuditedByTheirUpdate() {
+        trail.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 1, 2, Task.Status.COMPLETED,
+                Task.Priority.HIGH, "author@example.com", null, Task.Status.IN_PROGRESS, Task.Priority.HIGH, null,
+                true));
+
+        assertEquals(0, trail.getQueued());
+    }
+
+    @Test
+    public void getHistory_ShouldRejectUnknownTask() {
+        when(taskAuditRepository.findAfter(9L, 0L, 21)).thenReturn(List.of());
+        when(taskRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(NoSuchElementException.class, () -> trail.getHistory(9L, 0L, 20));
+    }
+
+    private static TaskHistoryEntry entry(long taskId) {
+        TaskChangedEvent event = new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, taskId, 2, Task.Status.COMPLETED,
+                Task.Priority.HIGH, "author@example.com", "user@example.com", Task.Status.IN_PROGRESS,
+                Task.Priority.HIGH, "user@example.com");
+        return TaskHistoryEntry.of(event, "user@example.com", Instant.now());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.taskmanagement.event;
+
+import com.example.taskmanagement.entity.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class TaskEventBusTest {
+
+    /**
+     * Runs the dispatcher tasks only when asked to, so the tests decide when events are written.
+     */
+    private final Queue<Runnable> dispatches = new ArrayDeque<>();
+
+    private TaskEventBus bus;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        bus = new TaskEventBus(Duration.ofMinutes(1), 2, Duration.ofMinutes(1), 3, dispatches::add);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(bus)).build();
+    }
+
+    @Test
+    public void publish_ShouldDeliverEventsOfOwnTasksOnly() throws Exception {
+        MvcResult alice = subscribe("alice@example.com");
+
+        bus.publish(event(1L, 1, "alice@example.com", null));
+        bus.publish(event(2L, 1, "bob@example.com", null));
+        bus.publish(event(3L, 1, "bob@example.com", "alice@example.com"));
+        dispatch();
+
+        String stream = alice.getResponse().getContentAsString();
+        assertTrue(stream.contains("\"taskId\":1"), stream);
+        assertFalse(stream.contains("\"taskId\":2"), stream);
+        assertTrue(stream.contains("\"taskId\":3"), stream);
+        assertEquals(1, bus.getSubscriberCount());
+    }
+
+    @Test
+    public void publish_ShouldCoalesceAndDropEventsOfSlowSubscribers() throws Exception {
+        MvcResult alice = subscribe("alice@example.com");
+
+        bus.publish(event(1L, 1, "alice@example.com", null));
+        bus.publish(event(1L, 2, "alice@example.com", null));
+        bus.publish(event(2L, 1, "alice@example.com", null));
+        bus.publish(event(3L, 1, "alice@example.com", null));
+        dispatch();
+
+        String stream = alice.getResponse().getContentAsString();
+        assertTrue(stream.startsWith(":"), "headers and heartbeat come first");
+        assertTrue(stream.contains("event:" + TaskEventBus.RESYNC), stream);
+        assertTrue(stream.contains("\"taskId\":1,\"version\":2"), stream);
+        assertFalse(stream.contains("\"taskId\":1,\"version\":1"), stream);
+        assertFalse(stream.contains("\"taskId\":3"), stream);
+        assertEquals(1, bus.getDroppedEvents());
+    }
+
+    @Test
+    public void publish_ShouldCloseStreamAfterRepeatedSlowSends() throws Exception {
+        // with no time allowed, every write is slow
+        bus = new TaskEventBus(Duration.ofMinutes(1), 2, Duration.ZERO, 2, dispatches::add);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(bus)).build();
+        MvcResult alice = subscribe("alice@example.com");
+
+        bus.publish(event(1L, 1, "alice@example.com", null));
+        dispatch();
+        bus.publish(event(2L, 1, "alice@example.com", null));
+        dispatch();
+
+        String stream = alice.getResponse().getContentAsString();
+        assertTrue(stream.contains("\"taskId\":1"), stream);
+        assertTrue(stream.endsWith("event:" + TaskEventBus.RESYNC + "\ndata:{}\n\n"), stream);
+        assertFalse(stream.contains("\"taskId\":2"), stream);
+        assertEquals(0, bus.getSubscriberCount());
+        assertEquals(1, bus.getSlowSubscribers());
+    }
+
+    private MvcResult subscribe(String email) throws Exception {
+        MvcResult result = mockMvc.perform(get("/stream").param("email", email))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        dispatch();
+        return result;
+    }
+
+    private void dispatch() {
+        while (!dispatches.isEmpty()) {
+            dispatches.poll().run();
+        }
+    }
+
+    private static TaskChangedEvent event(long taskId, long version, String author, String assignee) {
+        return new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, taskId, version, Task.Status.IN_PROGRESS,
+                Task.Priority.LOW, author, assignee, Task.Status.WAITING, Task.Priority.LOW, assignee);
+    }
+
+    @RestController
+    private record StreamController(TaskEventBus bus) {
+
+        @GetMapping("/stream")
+        public SseEmitter stream(@RequestParam String email) {
+            return bus.subscribe(email);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.taskmanagement.jwt;
+
+import com.example.taskmanagement.entity.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JWTUtilsTest {
+
+    private VerifiedTokenCache cache;
+    private JWTUtils jwtUtils;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new VerifiedTokenCache(100);
+        jwtUtils = new JWTUtils(cache);
+
+        user = new User();
+        user.setId(7L);
+        user.setTokenVersion(3);
+        user.setEmail("test@example.com");
+        user.setRole(User.Role.USER);
+    }
+
+    @Test
+    public void verify_ShouldParseTokenOnlyOnce() {
+        String token = jwtUtils.generateToken(user);
+
+        Claims first = jwtUtils.verify(token);
+        Claims second = jwtUtils.verify(token);
+
+        assertEquals("test@example.com", first.getSubject());
+        assertSame(first, second);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void verify_ShouldReturnNull_WhenTokenIsTampered() {
+        String token = jwtUtils.generateToken(user);
+
+        assertNull(jwtUtils.verify(token + "x"));
+        assertFalse(jwtUtils.isTokenValid("not-a-token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void put_ShouldStayWithinMaxSize() {
+        VerifiedTokenCache smallCache = new VerifiedTokenCache(2);
+        JWTUtils utils = new JWTUtils(smallCache);
+
+        for (int i = 0; i < 5; i++) {
+            user.setEmail("user" + i + "@example.com");
+            utils.verify(utils.generateToken(user));
+        }
+
+        assertEquals(2, smallCache.size());
+        assertEquals(3, smallCache.getEvictionCount());
+    }
+
+    @Test
+    public void extractUser_ShouldRebuildUserFromClaims() {
+        Claims claims = jwtUtils.verify(jwtUtils.generateToken(user));
+
+        User tokenUser = jwtUtils.extractUser(claims);
+
+        assertEquals(7L, tokenUser.getId());
+        assertEquals("test@example.com", tokenUser.getEmail());
+        assertEquals(User.Role.USER, tokenUser.getRole());
+        assertEquals(3, tokenUser.getTokenVersion());
+        assertNull(tokenUser.getPassword());
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.taskmanagement.loadtest;
+
+import com.example.taskmanagement.dto.ExportFormat;
+import com.example.taskmanagement.jwt.JWTUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.unit.DataSize;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Export of a large task table: seeds {@code app.loadtest.export.tasks} tasks, downloads
+ * {@code GET /api/tasks/export} in {@code app.loadtest.export.format} and records how much heap
+ * is still in use after every garbage collection during the download. The export streams from
+ * a database cursor, so that must not grow by more than {@code app.loadtest.export.max-heap-growth}
+ * over what was in use before it started. The result is logged and written to
+ * {@code app.loadtest.export.report}.
+ * <p>
+ * Runs with the load test profile. To check the export in a small heap, run it on its own and
+ * pass the heap size to the test JVM:
+ * {@code mvn test -Ploadtest -Dtest=ExportLoadTest -DargLine=-Xmx64m}.
+ */
+@Slf4j
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+public class ExportLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.loadtest.users}")
+    private int users;
+
+    @Value("${app.loadtest.export.tasks}")
+    private int tasks;
+
+    @Value("${app.loadtest.export.format}")
+    private ExportFormat format;
+
+    @Value("${app.loadtest.export.max-heap-growth}")
+    private DataSize maxHeapGrowth;
+
+    @Value("${app.loadtest.export.timeout}")
+    private Duration timeout;
+
+    @Value("${app.loadtest.export.report}")
+    private Path reportFile;
+
+    record ExportReport(int tasks, ExportFormat format, long bytes, double seconds, long maxHeapBytes,
+                        long heapBeforeBytes, long maxHeapAfterGcBytes, int collections) {
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        LoadTestData.useEmbeddedDatabase(registry);
+    }
+
+    @Test
+    public void largeExport() throws Exception {
+        LoadTestData data = new LoadTestData(jdbcTemplate, users, tasks, 0);
+        data.seed(passwordEncoder.encode(LoadTestData.PASSWORD));
+        String token = jwtUtils.generateToken(data.admin());
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/api/tasks/export?format=" + format))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .timeout(timeout)
+                .build();
+
+        System.gc();
+        long heapBefore = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long started = System.nanoTime();
+        long bytes = 0;
+        long lines = 0;
+        int status;
+        try (HeapAfterGc heap = new HeapAfterGc()) {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            status = response.statusCode();
+            try (InputStream body = response.body()) {
+                byte[] buffer = new byte[64 * 1024];
+                for (int read; (read = body.read(buffer)) > 0; ) {
+                    bytes += read;
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] == '\n') {
+                            lines++;
+                        }
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            ExportReport report = new ExportReport(tasks, format, bytes, seconds, Runtime.getRuntime().maxMemory(),
+                    heapBefore, heap.maxUsed(), heap.collections());
+            log.info(String.format(Locale.ROOT,
+                    "Export of %d tasks as %s: %d MB in %.1f s, -Xmx %d MB, heap before %d MB, "
+                            + "max after GC %d MB over %d collections",
+                    tasks, format, bytes >> 20, seconds, report.maxHeapBytes() >> 20, heapBefore >> 20,
+                    report.maxHeapAfterGcBytes() >> 20, report.collections()));
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+
+            assertEquals(200, status);
+            // CSV has a header line
+            assertEquals(format == ExportFormat.CSV ? tasks + 1 : tasks, lines);
+            assertTrue(report.maxHeapAfterGcBytes() - heapBefore <= maxHeapGrowth.toBytes(),
+                    "Heap in use after GC grew by " + ((report.maxHeapAfterGcBytes() - heapBefore) >> 20)
+                            + " MB during the export");
+        }
+    }
+
+    /**
+     * Largest heap in use right after a garbage collection, taken from the collectors'
+     * notifications while it is open.
+     */
+    private static final class HeapAfterGc implements NotificationListener, AutoCloseable {
+
+        private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getName)
+                .collect(Collectors.toSet());
+        private final AtomicLong maxUsed = new AtomicLong();
+        private final AtomicInteger collections = new AtomicInteger();
+
+        HeapAfterGc() {
+            collectors.forEach(collector -> ((NotificationEmitter) collector).addNotificationListener(this, null, null));
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long used = info.getGcInfo().getMemoryUsageAfterGc().entrySet().stream()
+                    .filter(pool -> heapPools.contains(pool.getKey()))
+                    .mapToLong(pool -> pool.getValue().getUsed())
+                    .sum();
+            maxUsed.accumulateAndGet(used, Math::max);
+            collections.incrementAndGet();
+        }
+
+        long maxUsed() {
+            return maxUsed.get();
+        }
+
+        int collections() {
+            return collections.get();
+        }
+
+        @Override
+        public void close() throws Exception {
+            for (GarbageCollectorMXBean collector : collectors) {
+                ((NotificationEmitter) collector).removeNotificationListener(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.taskmanagement.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop load generator: requests are started at a fixed rate whatever the response times,
+ * the operation of each one drawn by weight. Latency is measured from the moment a request was
+ * due, not from when it could be sent, so a server that falls behind shows up in the percentiles
+ * instead of silently lowering the rate. At most {@code maxInFlight} requests are outstanding;
+ * beyond that the generator waits, and the wait counts as latency as well.
+ */
+@Slf4j
+class LoadGenerator {
+
+    private final HttpClient client;
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    LoadGenerator(HttpClient client, List<Operation> operations, int maxInFlight) {
+        this.client = client;
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        operations.forEach(operation -> stats.putIfAbsent(operation.endpoint(), new EndpointStats()));
+    }
+
+    /**
+     * Runs {@code warmup} and then {@code duration} at {@code rate} requests per second; only the
+     * requests due after the warm-up are recorded.
+     */
+    Map<String, EndpointStats> run(double rate, Duration warmup, Duration duration) throws InterruptedException {
+        long period = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long due = start + i * period;
+            if (due >= end) {
+                break;
+            }
+            while (System.nanoTime() < due) {
+                LockSupport.parkNanos(due - System.nanoTime());
+            }
+
+            Operation operation = pick();
+            EndpointStats endpointStats = due >= measureFrom ? stats.get(operation.endpoint()) : null;
+            inFlight.acquire();
+            client.sendAsync(operation.request().get(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (endpointStats != null) {
+                            endpointStats.record(System.nanoTime() - due, response != null ? response.statusCode() : 0);
+                        }
+                        if (error != null) {
+                            log.debug("{} failed: {}", operation.endpoint(), error.toString());
+                        }
+                    });
+        }
+
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            log.warn("{} requests did not complete", maxInFlight - inFlight.availablePermits());
+        }
+        return stats;
+    }
+
+    private Operation pick() {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            value -= operation.weight();
+            if (value < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation weights changed");
+    }
+
+    /**
+     * One kind of request of the workload. {@code endpoint} names the controller mapping it hits,
+     * results are grouped by it.
+     */
+    record Operation(String endpoint, int weight, Supplier<HttpRequest> request) {
+    }
+
+    static class EndpointStats {
+
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new TreeMap<>();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        /**
+         * Status {@code 0} stands for a request that got no response (connection error or timeout).
+         */
+        void record(long latencyNanos, int status) {
+            if (status < 200 || status >= 400) {
+                errors.increment();
+            }
+            synchronized (this) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, Math.max(1024, count * 2));
+                }
+                latencies[count++] = latencyNanos;
+                statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            }
+        }
+
+        synchronized void copyTo(EndpointStats target) {
+            synchronized (target) {
+                target.errors.add(errors.sum());
+                target.latencies = Arrays.copyOf(target.latencies, target.count + count);
+                System.arraycopy(latencies, 0, target.latencies, target.count, count);
+                target.count += count;
+                statuses.forEach((status, adder) ->
+                        target.statuses.computeIfAbsent(status, key -> new LongAdder()).add(adder.sum()));
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        synchronized Map<Integer, Long> statuses() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, adder) -> counts.put(status, adder.sum()));
+            return counts;
+        }
+
+        /**
+         * Latencies in nanoseconds at the given percentiles (nearest rank), or zeros without samples.
+         */
+        synchronized long[] percentiles(double... percentiles) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            long[] values = new long[percentiles.length];
+            for (int i = 0; i < percentiles.length && count > 0; i++) {
+                int rank = (int) Math.ceil(percentiles[i] / 100 * count);
+                values[i] = sorted[Math.max(0, Math.min(count, rank) - 1)];
+            }
+            return values;
+        }
+    }
+}
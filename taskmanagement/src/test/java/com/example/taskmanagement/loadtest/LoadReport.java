@@ -0,0 +1,60 @@
+package com.example.taskmanagement.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outcome of a load test run, per endpoint and in total. Latencies are in milliseconds,
+ * throughput in completed requests per second of the measured period.
+ */
+record LoadReport(double targetRate, long durationSeconds, int users, int tasks, int commentsPerTask,
+                  List<Endpoint> endpoints, Endpoint total) {
+
+    record Endpoint(String endpoint, long requests, long errors, double errorRate, double throughput,
+                    double p50, double p95, double p99, double max, Map<Integer, Long> statuses) {
+    }
+
+    static LoadReport of(Map<String, LoadGenerator.EndpointStats> stats, Duration duration, double targetRate,
+                         int users, int tasks, int commentsPerTask) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        LoadGenerator.EndpointStats all = new LoadGenerator.EndpointStats();
+        stats.forEach((endpoint, endpointStats) -> endpoints.add(endpoint(endpoint, endpointStats, duration)));
+        stats.values().forEach(endpointStats -> endpointStats.copyTo(all));
+        return new LoadReport(targetRate, duration.toSeconds(), users, tasks, commentsPerTask, endpoints,
+                endpoint("TOTAL", all, duration));
+    }
+
+    String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "Load test: %.0f req/s target for %d s, %d users, %d tasks, %d comments per task%n",
+                targetRate, durationSeconds, users, tasks, commentsPerTask));
+        table.append(String.format(Locale.ROOT, "%-36s %9s %9s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Endpoint endpoint : endpoints) {
+            table.append(row(endpoint));
+        }
+        return table.append(row(total)).toString();
+    }
+
+    private static String row(Endpoint e) {
+        return String.format(Locale.ROOT, "%-36s %9d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f%n",
+                e.endpoint(), e.requests(), e.throughput(), e.errorRate() * 100, e.p50(), e.p95(), e.p99(), e.max());
+    }
+
+    private static Endpoint endpoint(String name, LoadGenerator.EndpointStats stats, Duration duration) {
+        long[] latencies = stats.percentiles(50, 95, 99, 100);
+        int requests = stats.count();
+        return new Endpoint(name, requests, stats.errors(),
+                requests > 0 ? (double) stats.errors() / requests : 0,
+                requests / (duration.toMillis() / 1000.0),
+                millis(latencies[0]), millis(latencies[1]), millis(latencies[2]), millis(latencies[3]),
+                stats.statuses());
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
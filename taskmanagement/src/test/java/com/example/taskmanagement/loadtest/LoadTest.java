@@ -0,0 +1,202 @@
+package com.example.taskmanagement.loadtest;
+
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.jwt.JWTUtils;
+import com.example.taskmanagement.service.TaskStatistics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test: boots the application on a random port against an embedded PostgreSQL
+ * (or the database given with {@code -Dspring.datasource.url}, which must be empty), seeds
+ * {@code app.loadtest.users}, {@code tasks} and {@code comments-per-task}, and drives the
+ * {@code app.loadtest.mix} of requests at {@code app.loadtest.rate} requests per second. The
+ * per-endpoint report is logged and written to {@code app.loadtest.report}.
+ * <p>
+ * Excluded from the regular build; run it with {@code mvn test -Ploadtest}, overriding any
+ * setting of {@code application-loadtest.yaml} with {@code -Dapp.loadtest.<name>=<value>}.
+ */
+@Slf4j
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+public class LoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @Autowired
+    private TaskStatistics taskStatistics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.loadtest.users}")
+    private int users;
+
+    @Value("${app.loadtest.tasks}")
+    private int tasks;
+
+    @Value("${app.loadtest.comments-per-task}")
+    private int commentsPerTask;
+
+    @Value("${app.loadtest.rate}")
+    private double rate;
+
+    @Value("${app.loadtest.warmup}")
+    private Duration warmup;
+
+    @Value("${app.loadtest.duration}")
+    private Duration duration;
+
+    @Value("${app.loadtest.max-in-flight}")
+    private int maxInFlight;
+
+    @Value("${app.loadtest.request-timeout}")
+    private Duration requestTimeout;
+
+    @Value("${app.loadtest.max-error-rate}")
+    private double maxErrorRate;
+
+    @Value("${app.loadtest.report}")
+    private Path reportFile;
+
+    private String[] tokens;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        LoadTestData.useEmbeddedDatabase(registry);
+    }
+
+    @Test
+    public void mixedWorkload() throws Exception {
+        LoadTestData data = new LoadTestData(jdbcTemplate, users, tasks, commentsPerTask);
+        data.seed(passwordEncoder.encode(LoadTestData.PASSWORD));
+        taskStatistics.reconcile();
+        tokens = new String[users + 2];
+        for (int id = 1; id <= users + 1; id++) {
+            tokens[id] = jwtUtils.generateToken(LoadTestData.user(id));
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(requestTimeout).build();
+        LoadGenerator generator = new LoadGenerator(client, operations(data), maxInFlight);
+        LoadReport report = LoadReport.of(generator.run(rate, warmup, duration), duration, rate,
+                users, tasks, commentsPerTask);
+
+        log.info("\n{}", report.toTable());
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        assertTrue(report.total().requests() > 0, "No request completed");
+        assertTrue(report.total().errorRate() <= maxErrorRate,
+                "Error rate " + report.total().errorRate() + " is above " + maxErrorRate);
+    }
+
+    private List<LoadGenerator.Operation> operations(LoadTestData data) {
+        Map<String, Integer> mix = Binder.get(environment)
+                .bind("app.loadtest.mix", Bindable.mapOf(String.class, Integer.class))
+                .orElseThrow(() -> new IllegalStateException("app.loadtest.mix is not set"));
+
+        List<LoadGenerator.Operation> operations = new ArrayList<>();
+        mix.forEach((name, weight) -> {
+            if (weight > 0) {
+                operations.add(operation(name, weight, data));
+            }
+        });
+        return operations;
+    }
+
+    private LoadGenerator.Operation operation(String name, int weight, LoadTestData data) {
+        return switch (name) {
+            case "login" -> new LoadGenerator.Operation("POST /api/user/login", weight, () -> {
+                User user = data.randomUser();
+                return request("/api/user/login")
+                        .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + user.getEmail()
+                                + "\",\"password\":\"" + LoadTestData.PASSWORD + "\"}"))
+                        .build();
+            });
+            case "list" -> new LoadGenerator.Operation("GET /api/tasks/assignee", weight, () -> {
+                User user = data.randomUser();
+                return authorized(user, "/api/tasks/assignee?userId=" + user.getId() + "&page="
+                        + ThreadLocalRandom.current().nextInt(5) + "&size=20").GET().build();
+            });
+            case "filter" -> new LoadGenerator.Operation("GET /api/tasks", weight, () ->
+                    authorized(data.admin(), "/api/tasks?status=" + random(Task.Status.values())
+                            + "&priority=" + random(Task.Priority.values())
+                            + "&page=" + ThreadLocalRandom.current().nextInt(10) + "&size=20").GET().build());
+            case "status" -> new LoadGenerator.Operation("PUT /api/tasks/{id}/status", weight, taskRequest(data, "PUT",
+                    taskId -> "/api/tasks/" + taskId + "/status?newStatus=" + random(Task.Status.values())));
+            case "comment" -> new LoadGenerator.Operation("POST /api/tasks/{id}/comment", weight, taskRequest(data, "POST",
+                    taskId -> "/api/tasks/" + taskId + "/comment?comment=Load+test+comment"));
+            default -> throw new IllegalArgumentException("Unknown operation in app.loadtest.mix: " + name);
+        };
+    }
+
+    /**
+     * A change of a random task, made by its assignee, who is allowed to make it.
+     */
+    private Supplier<HttpRequest> taskRequest(LoadTestData data, String method, LongFunction<String> path) {
+        return () -> {
+            long taskId = data.randomTask();
+            return authorized(data.assigneeOf(taskId), path.apply(taskId))
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .build();
+        };
+    }
+
+    private HttpRequest.Builder authorized(User user, String path) {
+        return request(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens[user.getId().intValue()]);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(requestTimeout);
+    }
+
+    private static <T> T random(T[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+}
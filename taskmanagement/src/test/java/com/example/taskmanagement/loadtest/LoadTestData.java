@@ -0,0 +1,106 @@
+package com.example.taskmanagement.loadtest;
+
+import com.example.taskmanagement.entity.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeds the load test database with set-based inserts: user 1 is an admin, users
+ * {@code 2..users + 1} are regular users, task {@code t} is written by the admin and assigned to
+ * {@link #assigneeOf(long) user 2 + t % users}, and every task has the same number of comments.
+ * Because of that layout the workload can pick a task and act as its assignee without asking the
+ * database.
+ */
+@Slf4j
+class LoadTestData {
+
+    static final String PASSWORD = "password";
+
+    /**
+     * Points the application at a new embedded PostgreSQL unless {@code -Dspring.datasource.url}
+     * names a database. The server is stopped by its own shutdown hook, after the application
+     * context has been closed.
+     */
+    static void useEmbeddedDatabase(DynamicPropertyRegistry registry) throws IOException {
+        if (System.getProperty("spring.datasource.url") != null) {
+            return;
+        }
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int users;
+    private final int tasks;
+    private final int commentsPerTask;
+
+    LoadTestData(JdbcTemplate jdbcTemplate, int users, int tasks, int commentsPerTask) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = users;
+        this.tasks = tasks;
+        this.commentsPerTask = commentsPerTask;
+    }
+
+    void seed(String passwordHash) {
+        Long existing = jdbcTemplate.queryForObject("select count(*) from \"user\"", Long.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("The load test needs an empty database, found " + existing + " users");
+        }
+
+        long started = System.currentTimeMillis();
+        jdbcTemplate.update("""
+                insert into "user" (id, email, password, role, token_version)
+                select g, 'user' || g || '@loadtest.local', ?, case when g = 1 then 'ADMIN' else 'USER' end, 0
+                from generate_series(1, ?) g""", passwordHash, users + 1);
+        jdbcTemplate.update("""
+                insert into task (id, title, description, status, priority, author_id, assignee_id, comment_count, version)
+                select g, 'Task ' || g, 'Load test task number ' || g,
+                       (array['WAITING', 'IN_PROGRESS', 'COMPLETED'])[1 + g % 3],
+                       (array['HIGH', 'MEDIUM', 'LOW'])[1 + (g / 3) % 3],
+                       1, 2 + g % ?, ?, 0
+                from generate_series(1, ?) g""", users, commentsPerTask, tasks);
+        jdbcTemplate.update("""
+                insert into comment (id, text, author_id, task_id)
+                select (t - 1) * ? + c, 'Comment ' || c || ' on task ' || t, 2 + t % ?, t
+                from generate_series(1, ?) t, generate_series(1, ?) c""", commentsPerTask, users, tasks, commentsPerTask);
+        // the application allocates ids from these sequences in blocks of 50
+        jdbcTemplate.execute("select setval('user_seq', (select max(id) from \"user\") + 50, false)");
+        jdbcTemplate.execute("select setval('task_seq', (select max(id) from task) + 50, false)");
+        jdbcTemplate.execute("select setval('comment_seq', coalesce((select max(id) from comment), 0) + 50, false)");
+        jdbcTemplate.execute("analyze");
+
+        log.info("Seeded {} users, {} tasks and {} comments in {} ms", users + 1, tasks,
+                (long) tasks * commentsPerTask, System.currentTimeMillis() - started);
+    }
+
+    User admin() {
+        return user(1);
+    }
+
+    User randomUser() {
+        return user(2 + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    long randomTask() {
+        return 1 + ThreadLocalRandom.current().nextInt(tasks);
+    }
+
+    User assigneeOf(long taskId) {
+        return user(2 + taskId % users);
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@loadtest.local");
+        user.setRole(id == 1 ? User.Role.ADMIN : User.Role.USER);
+        return user;
+    }
+}
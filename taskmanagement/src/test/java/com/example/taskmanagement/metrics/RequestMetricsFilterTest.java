@@ -0,0 +1,68 @@
+package com.example.taskmanagement.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestMetricsFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestMetricsFilter(meterRegistry, 10, Map.of("GET /api/tasks/{id}", 2));
+    }
+
+    @Test
+    public void doFilter_ShouldRecordStatementsPerRouteAndFlagOverBudget() throws Exception {
+        perform("/api/tasks/{id}", 3, 1);
+        perform("/api/tasks/{id}", 1, 1);
+
+        DistributionSummary statements = meterRegistry.get("http.server.requests.statements")
+                .tags("method", "GET", "uri", "/api/tasks/{id}").summary();
+        assertEquals(2, statements.count());
+        assertEquals(4, statements.totalAmount());
+        assertEquals(2, meterRegistry.get("http.server.requests.entity.loads")
+                .tags("uri", "/api/tasks/{id}").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("http.server.requests.over.budget")
+                .tags("uri", "/api/tasks/{id}").counter().count());
+    }
+
+    @Test
+    public void doFilter_ShouldUseDefaultBudgetAndStopCountingAfterRequest() throws Exception {
+        perform(null, 3, 0);
+        RequestStatistics.statementPrepared();
+
+        assertEquals(3, meterRegistry.get("http.server.requests.statements")
+                .tags("uri", "UNKNOWN").summary().totalAmount());
+        assertEquals(0, meterRegistry.get("http.server.requests.over.budget")
+                .tags("uri", "UNKNOWN").counter().count());
+    }
+
+    private void perform(String pattern, int statements, int entityLoads) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/1");
+        FilterChain chain = (req, res) -> {
+            if (pattern != null) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+            }
+            for (int i = 0; i < statements; i++) {
+                RequestStatistics.statementPrepared();
+            }
+            for (int i = 0; i < entityLoads; i++) {
+                RequestStatistics.entityLoaded();
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}
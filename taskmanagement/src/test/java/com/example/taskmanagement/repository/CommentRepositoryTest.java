@@ -0,0 +1,101 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.dto.CommentSummary;
+import com.example.taskmanagement.entity.Comment;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class CommentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Task busyTask;
+    private Task quietTask;
+    private final List<Long> busyCommentIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        entityManager.persist(user);
+
+        busyTask = persistTask(user);
+        quietTask = persistTask(user);
+
+        for (int i = 0; i < 10; i++) {
+            busyCommentIds.add(persistComment(busyTask, user, "busy " + i).getId());
+        }
+        persistComment(quietTask, user, "quiet");
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void findPreviewsByTaskIds_ShouldReturnLatestCommentsPerTask() {
+        List<CommentSummary> previews = commentRepository.findPreviewsByTaskIds(
+                List.of(busyTask.getId(), quietTask.getId()), 3);
+
+        assertEquals(List.of("busy 7", "busy 8", "busy 9"), previews.stream()
+                .filter(c -> c.getTaskId().equals(busyTask.getId())).map(CommentSummary::getText).toList());
+        assertEquals(List.of("quiet"), previews.stream()
+                .filter(c -> c.getTaskId().equals(quietTask.getId())).map(CommentSummary::getText).toList());
+    }
+
+    @Test
+    public void findSummariesAfter_ShouldPageThroughComments() {
+        List<CommentSummary> first = commentRepository.findSummariesAfter(busyTask.getId(), 0L, Limit.of(4));
+        List<CommentSummary> second = commentRepository.findSummariesAfter(
+                busyTask.getId(), first.get(first.size() - 1).getId(), Limit.of(4));
+
+        assertEquals(busyCommentIds.subList(0, 4), first.stream().map(CommentSummary::getId).toList());
+        assertEquals(busyCommentIds.subList(4, 8), second.stream().map(CommentSummary::getId).toList());
+    }
+
+    @Test
+    public void incrementCommentCount_ShouldUpdateDenormalizedCount() {
+        taskRepository.incrementCommentCount(quietTask.getId());
+        entityManager.clear();
+
+        assertEquals(1, taskRepository.findById(quietTask.getId()).orElseThrow().getCommentCount());
+    }
+
+    private Task persistTask(User author) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setAuthor(author);
+        return entityManager.persist(task);
+    }
+
+    private Comment persistComment(Task task, User author, String text) {
+        Comment comment = new Comment();
+        comment.setText(text);
+        comment.setAuthor(author);
+        comment.setTask(task);
+        return entityManager.persist(comment);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.dto.TaskHistoryEntry;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class TaskAuditRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TaskAuditRepository taskAuditRepository;
+
+    private long taskId;
+
+    @BeforeEach
+    public void setUp() {
+        taskAuditRepository = new TaskAuditRepository(jdbcTemplate);
+        taskId = jdbcTemplate.queryForObject("select coalesce(max(task_id), 0) + 1000 from task_audit", Long.class);
+    }
+
+    @Test
+    public void findAfter_ShouldOrderByTaskVersionRatherThanInsertion() {
+        // a bulk update (version 3) written before the queued single update it followed (version 2)
+        taskAuditRepository.insertAll(List.of(entry(1), entry(3)));
+        taskAuditRepository.insertAll(List.of(entry(2)));
+
+        List<TaskHistoryEntry> first = taskAuditRepository.findAfter(taskId, 0, 2);
+        assertEquals(List.of(1L, 2L), first.stream().map(TaskHistoryEntry::getVersion).toList());
+
+        List<TaskHistoryEntry> rest = taskAuditRepository.findAfter(taskId, first.get(1).getId(), 2);
+        assertEquals(List.of(3L), rest.stream().map(TaskHistoryEntry::getVersion).toList());
+    }
+
+    private TaskHistoryEntry entry(long version) {
+        TaskChangedEvent event = new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, taskId, version,
+                Task.Status.IN_PROGRESS, Task.Priority.LOW, "author@example.com", null, null, null, null);
+        return TaskHistoryEntry.of(event, "author@example.com", Instant.now());
+    }
+}
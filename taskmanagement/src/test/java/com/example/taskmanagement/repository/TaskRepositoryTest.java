@@ -0,0 +1,247 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.dto.KeysetCursor;
+import com.example.taskmanagement.dto.TaskBulkUpdate;
+import com.example.taskmanagement.dto.TaskChange;
+import com.example.taskmanagement.dto.TaskFilter;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.dto.TaskTransition;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class TaskRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User author;
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        author = new User();
+        author.setEmail(UUID.randomUUID() + "@example.com");
+        author.setPassword("password");
+        author.setRole(User.Role.ADMIN);
+        entityManager.persist(author);
+
+        // duplicate titles make sure the id tie-breaker is part of the seek predicate
+        String[] titles = {"b", "a", "c", "a", "b", "d", "a"};
+        for (String title : titles) {
+            Task task = new Task();
+            task.setTitle(title);
+            task.setAuthor(author);
+            taskIds.add(entityManager.persist(task).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void findSummariesAfter_ShouldScrollByIdWithoutGapsOrDuplicates() {
+        List<Long> scrolled = scroll(KeysetCursor.first(Sort.by("id")), 3).stream().map(TaskSummary::getId).toList();
+
+        assertEquals(taskIds, scrolled);
+    }
+
+    @Test
+    public void findSummariesAfter_ShouldScrollByTitleDescending() {
+        List<TaskSummary> scrolled = scroll(KeysetCursor.first(Sort.by(Sort.Direction.DESC, "title")), 2);
+
+        assertEquals(List.of("d", "c", "b", "b", "a", "a", "a"), scrolled.stream().map(TaskSummary::getTitle).toList());
+        assertEquals(taskIds.size(), scrolled.stream().map(TaskSummary::getId).distinct().count());
+    }
+
+    @Test
+    public void decode_ShouldRestoreEncodedCursor() {
+        TaskSummary last = TaskSummary.builder().id(42L).title("a|b").build();
+        KeysetCursor cursor = KeysetCursor.first(Sort.by("title")).after(last);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals(KeysetCursor.SortKey.TITLE, decoded.getSortKey());
+        assertEquals(42L, decoded.getLastId());
+        assertEquals("a|b", decoded.getLastValue());
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("garbage"));
+    }
+
+    @Test
+    public void countEstimator_ShouldReadPlannerEstimates() {
+        TaskCountEstimator estimator = new TaskCountEstimator(jdbcTemplate, new ObjectMapper(), Duration.ofMinutes(1));
+
+        assertTrue(estimator.estimate(TaskFilter.byAuthor(author.getId())) >= 0);
+        assertTrue(estimator.estimate(TaskFilter.byAssignee(author.getId())) >= 0);
+    }
+
+    @Test
+    public void findSummaries_ShouldCombineFilters() {
+        TaskFilter filter = TaskFilter.byAuthor(author.getId());
+        filter.setTitlePrefix("a");
+
+        Page<TaskSummary> page = taskRepository.findSummaries(filter, PageRequest.of(0, 2, Sort.by("title")));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("a", "a"), page.getContent().stream().map(TaskSummary::getTitle).toList());
+
+        filter.setTitlePrefix("%");
+        assertEquals(0, taskRepository.countSummaries(filter));
+    }
+
+    @Test
+    public void bulkUpdate_ShouldChangeSelectedTasksAndReturnTheirIds() {
+        TaskBulkUpdate update = new TaskBulkUpdate();
+        update.setFilter(TaskFilter.byAuthor(author.getId()));
+        update.getFilter().setTitlePrefix("a");
+        update.setStatus(Task.Status.COMPLETED);
+
+        List<TaskTransition> updated = taskRepository.bulkUpdate(update, null, 3, author.getEmail());
+
+        assertEquals(List.of(taskIds.get(1), taskIds.get(3), taskIds.get(6)),
+                updated.stream().map(transition -> transition.task().getId()).sorted().toList());
+        assertTrue(updated.stream().allMatch(transition -> transition.previousStatus() == null
+                && transition.task().getStatus() == Task.Status.COMPLETED));
+        TaskFilter completed = TaskFilter.byAuthor(author.getId());
+        completed.setStatus(Task.Status.COMPLETED);
+        assertEquals(3, taskRepository.countSummaries(completed));
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from task_audit where changed_by = ?"
+                + " and type = 'UPDATED' and status = 'COMPLETED'", Integer.class, author.getEmail()));
+    }
+
+    @Test
+    public void updateIfMatches_ShouldOnlyUpdateTheExpectedVersion() {
+        Long taskId = taskIds.get(0);
+        TaskChange change = new TaskChange();
+        change.setPriority(Task.Priority.HIGH);
+
+        TaskTransition transition = taskRepository.updateIfMatches(taskId, change, 0L, null).orElseThrow();
+        TaskSummary updated = transition.task();
+
+        assertNull(transition.previousPriority());
+        assertEquals(Task.Priority.HIGH, updated.getPriority());
+        assertEquals(author.getEmail(), updated.getAuthor());
+        assertEquals(1L, updated.getVersion());
+        assertTrue(taskRepository.updateIfMatches(taskId, change, 0L, null).isEmpty());
+        assertTrue(taskRepository.updateIfMatches(taskId, change, null, author.getId()).isEmpty());
+        change.setPriority(Task.Priority.LOW);
+        transition = taskRepository.updateIfMatches(taskId, change, null, null).orElseThrow();
+        assertEquals(Task.Priority.HIGH, transition.previousPriority());
+        assertEquals(2L, transition.task().getVersion());
+    }
+
+    @Test
+    public void bulkUpdate_ShouldSkipTasksNotAssignedToTheUser() {
+        TaskBulkUpdate update = new TaskBulkUpdate();
+        update.setIds(taskIds);
+        update.setStatus(Task.Status.COMPLETED);
+
+        assertTrue(taskRepository.bulkUpdate(update, author.getId(), 100, author.getEmail()).isEmpty());
+    }
+
+    @Test
+    public void bulkUpdate_ShouldUpdateAtMostLimitTasks() {
+        TaskBulkUpdate update = new TaskBulkUpdate();
+        update.setFilter(TaskFilter.byAuthor(author.getId()));
+        update.getFilter().setTitlePrefix("a");
+        update.setStatus(Task.Status.COMPLETED);
+
+        assertEquals(2, taskRepository.bulkUpdate(update, null, 2, author.getEmail()).size());
+        TaskFilter completed = TaskFilter.byAuthor(author.getId());
+        completed.setStatus(Task.Status.COMPLETED);
+        assertEquals(2, taskRepository.countSummaries(completed));
+    }
+
+    @Test
+    public void explain_ShouldUseTheMatchingIndexForEveryFilterCombination() throws Exception {
+        TaskCountEstimator estimator = new TaskCountEstimator(jdbcTemplate, new ObjectMapper(), Duration.ofMinutes(1));
+        // the test table is tiny, so take the sequential scan off the table to see which index the planner picks
+        jdbcTemplate.execute("set local enable_seqscan = off");
+
+        for (int mask = 1; mask < 1 << 5; mask++) {
+            TaskFilter filter = new TaskFilter();
+            if ((mask & 1) != 0) filter.setStatus(Task.Status.WAITING);
+            if ((mask & 2) != 0) filter.setPriority(Task.Priority.HIGH);
+            if ((mask & 4) != 0) filter.setAuthorId(author.getId());
+            if ((mask & 8) != 0) filter.setAssigneeId(author.getId());
+            if ((mask & 16) != 0) filter.setTitlePrefix("a");
+
+            JsonNode plan = new ObjectMapper().readTree(estimator.explain(filter));
+            List<String> indexes = plan.findValuesAsText("Index Name");
+            String conditions = String.join(" ", plan.findValuesAsText("Index Cond"));
+
+            Set<String> expected = expectedIndexes(filter);
+            assertFalse(indexes.isEmpty(), () -> filter + " is not index backed: " + plan);
+            assertTrue(expected.containsAll(indexes), () -> filter + " uses " + indexes + ", expected " + expected);
+            if (filter.getStatus() != null && !indexes.contains("ix_task_title_prefix")
+                    && !indexes.contains("ix_task_title")) {
+                // the composite indexes have status right after their leading column
+                assertTrue(conditions.contains("status"), () -> filter + " does not seek by status: " + plan);
+            }
+        }
+    }
+
+    /**
+     * Indexes of V2__task_list_indexes.sql a filter should be served by: the one led by its most
+     * selective equality column, or a title index for the prefix.
+     */
+    private static Set<String> expectedIndexes(TaskFilter filter) {
+        Set<String> expected = new HashSet<>();
+        if (filter.getAuthorId() != null) {
+            expected.add("ix_task_author_status_priority");
+        }
+        if (filter.getAssigneeId() != null) {
+            expected.add("ix_task_assignee_status_priority");
+        }
+        if (expected.isEmpty() && filter.getStatus() != null) {
+            expected.add("ix_task_status_priority");
+        }
+        if (expected.isEmpty() && filter.getPriority() != null) {
+            expected.add("ix_task_priority");
+        }
+        if (filter.getTitlePrefix() != null) {
+            expected.add("ix_task_title");
+            expected.add("ix_task_title_prefix");
+        }
+        return expected;
+    }
+
+    private List<TaskSummary> scroll(KeysetCursor cursor, int size) {
+        List<TaskSummary> result = new ArrayList<>();
+        while (true) {
+            List<TaskSummary> page = taskRepository.findSummariesAfter(TaskFilter.byAuthor(author.getId()), cursor, size);
+            result.addAll(page);
+            if (page.size() < size) {
+                return result;
+            }
+            cursor = cursor.after(page.get(page.size() - 1));
+        }
+    }
+}
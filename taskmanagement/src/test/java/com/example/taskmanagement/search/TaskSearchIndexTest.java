@@ -0,0 +1,136 @@
+package com.example.taskmanagement.search;
+
+import com.example.taskmanagement.dto.CommentSummary;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.event.TaskTextChangedEvent;
+import com.example.taskmanagement.repository.CommentRepository;
+import com.example.taskmanagement.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskSearchIndexTest {
+
+    @TempDir
+    private Path indexDir;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = open();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    public void search_ShouldRankTitleMatchesFirst() {
+        index.index(1L, "Fix login page", "The quarterly report button is broken");
+        index.index(2L, "Quarterly report", "Prepare numbers");
+        index.index(3L, "Release", "Ship it");
+        index.indexComment(31L, 3L, "report attached");
+        index.index(4L, "Unrelated", "Nothing here");
+
+        TaskSearchIndex.Hits hits = index.search("REPORT", 0, 10);
+
+        assertEquals(List.of(2L, 1L, 3L), hits.taskIds());
+        assertEquals(3, hits.total());
+        assertEquals(List.of(1L, 3L), index.search("report", 1, 10).taskIds());
+    }
+
+    @Test
+    public void search_ShouldRequireEveryWord() {
+        index.index(1L, "Quarterly report", null);
+        index.index(2L, "Annual report", null);
+        index.index(3L, "Budget", null);
+        index.indexComment(31L, 3L, "annual numbers");
+        index.indexComment(32L, 3L, "see the report");
+
+        assertEquals(List.of(2L, 3L), index.search("annual report", 0, 10).taskIds());
+        assertTrue(index.search("  ", 0, 10).taskIds().isEmpty());
+    }
+
+    @Test
+    public void index_ShouldReplaceAndDeleteDocuments() {
+        index.index(1L, "Draft", null);
+        index.indexComment(11L, 1L, "reviewed");
+        index.index(1L, "Final", null);
+        index.index(2L, "Final", null);
+        index.indexComment(21L, 2L, "reviewed");
+        index.delete(2L);
+
+        assertTrue(index.search("draft", 0, 10).taskIds().isEmpty());
+        assertEquals(List.of(1L), index.search("final", 0, 10).taskIds());
+        assertEquals(List.of(1L), index.search("reviewed", 0, 10).taskIds());
+    }
+
+    @Test
+    public void onTaskTextChanged_ShouldIndexCommentWithoutReadingTheTask() {
+        index.onTaskTextChanged(new TaskTextChangedEvent(1L, "Deploy", null, null, null));
+        index.onTaskTextChanged(new TaskTextChangedEvent(1L, null, null, 10L, "rollback plan"));
+
+        assertEquals(List.of(1L), index.search("deploy rollback", 0, 10).taskIds());
+        assertEquals(1, index.size());
+        verifyNoInteractions(taskRepository, commentRepository);
+    }
+
+    @Test
+    public void search_ShouldRejectDeepPages() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("report", 9_995, 10));
+    }
+
+    @Test
+    public void reopen_ShouldKeepIndexAfterCleanShutdown() throws Exception {
+        // a new index only counts as complete once it has been filled from the database
+        index.rebuild();
+        index.index(1L, "Persistent task", null);
+        index.close();
+        clearInvocations(taskRepository);
+
+        index = open();
+        index.bootstrap();
+
+        assertEquals(List.of(1L), index.search("persistent", 0, 10).taskIds());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void rebuild_ShouldReindexTasksAndComments() {
+        index.index(9L, "Stale task", null);
+        when(taskRepository.findSummariesAfter(any(), any(), anyInt())).thenReturn(List.of(
+                TaskSummary.builder().id(1L).title("Migrate database").build(),
+                TaskSummary.builder().id(2L).title("Write docs").build()));
+        when(commentRepository.findSummariesByTaskIds(List.of(1L, 2L)))
+                .thenReturn(List.of(new CommentSummary(5L, 2L, "mention the database", "a@b.c")));
+
+        index.rebuild();
+
+        assertEquals(List.of(1L, 2L), index.search("database", 0, 10).taskIds());
+        assertTrue(index.search("stale", 0, 10).taskIds().isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    private TaskSearchIndex open() {
+        return new TaskSearchIndex(taskRepository, commentRepository, indexDir, 10_000);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.taskmanagement.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthenticationFailureFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthenticationFailureFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimiter rateLimiter = new RateLimiter(Map.of(
+                "ANONYMOUS FAILED_AUTH", new RateLimiter.Limit(0.01, 2)), Duration.ofMinutes(10), 100);
+        filter = new AuthenticationFailureFilter(rateLimiter, meterRegistry, true);
+    }
+
+    @Test
+    public void doFilter_ShouldRefuseAddressBeforeAuthenticationAfterRepeatedFailures() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertEquals(401, perform("10.0.0.1", 401, attempts).getStatus());
+        assertEquals(401, perform("10.0.0.1", 401, attempts).getStatus());
+        MockHttpServletResponse refused = perform("10.0.0.1", 401, attempts);
+
+        assertEquals(429, refused.getStatus());
+        assertTrue(Long.parseLong(refused.getHeader(HttpHeaders.RETRY_AFTER)) > 10);
+        // the third attempt never reached the authentication filters
+        assertEquals(2, attempts.get());
+        assertEquals(1, meterRegistry.get("http.server.requests.rate.limited")
+                .tags("tier", "ANONYMOUS", "route", "FAILED_AUTH").counter().count());
+
+        assertEquals(200, perform("10.0.0.2", 200, attempts).getStatus());
+    }
+
+    @Test
+    public void doFilter_ShouldNotChargeSuccessfulRequests() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform("10.0.0.1", 200, attempts).getStatus());
+        }
+        assertEquals(5, attempts.get());
+    }
+
+    private MockHttpServletResponse perform(String remoteAddr, int status, AtomicInteger attempts) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Basic dXNlcjp3cm9uZw==");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            attempts.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(status);
+        });
+        return response;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.taskmanagement.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+    private CountDownLatch running;
+    private CountDownLatch release;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, Duration.ofSeconds(5), 2, 1);
+        running = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void execute_ShouldLimitConcurrentHashesPerEmail() throws Exception {
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> executor.execute("10.0.0.1", "a@x.io", this::block));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        PasswordHashingRejectedException rejected = assertThrows(PasswordHashingRejectedException.class,
+                () -> executor.execute("10.0.0.2", "A@x.io", () -> "second"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatus());
+
+        release.countDown();
+        assertEquals("hash", first.get(5, TimeUnit.SECONDS));
+        assertEquals("third", executor.execute("10.0.0.2", "a@x.io", () -> "third"));
+    }
+
+    @Test
+    public void execute_ShouldRejectWhenPoolIsSaturated() throws Exception {
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> executor.execute("10.0.0.1", "a@x.io", this::block));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.execute("10.0.0.2", "b@x.io", () -> "queued"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.hashing.queued").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        PasswordHashingRejectedException rejected = assertThrows(PasswordHashingRejectedException.class,
+                () -> executor.execute("10.0.0.3", "c@x.io", () -> "refused"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+
+        release.countDown();
+        assertEquals("hash", first.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private String block() {
+        running.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "hash";
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.taskmanagement.security;
+
+import com.example.taskmanagement.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(Map.of(
+                "USER READ", new RateLimiter.Limit(0.01, 10),
+                "ANONYMOUS AUTH", new RateLimiter.Limit(0.01, 1)), Duration.ofMinutes(10), 100);
+        filter = new RateLimitFilter(rateLimiter, meterRegistry, true, 50, 2000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void doFilter_ShouldWeightReadsByPageSize() throws Exception {
+        authenticate("user@example.com");
+
+        assertEquals(200, perform(get("/api/tasks", "400")).getStatus());
+        assertEquals(200, perform(get("/api/tasks", null)).getStatus());
+        assertEquals(200, perform(get("/api/tasks/1", null)).getStatus());
+
+        MockHttpServletResponse refused = perform(get("/api/tasks", "100"));
+        assertEquals(429, refused.getStatus());
+        assertTrue(Long.parseLong(refused.getHeader(HttpHeaders.RETRY_AFTER)) > 100);
+        assertEquals(1, meterRegistry.get("http.server.requests.rate.limited")
+                .tags("tier", "USER", "route", "READ").counter().count());
+
+        // an oversized page costs the whole burst, so it passes for another user with a full bucket
+        authenticate("other@example.com");
+        assertEquals(200, perform(get("/api/tasks", "100000")).getStatus());
+        assertEquals(429, perform(get("/api/tasks/1", null)).getStatus());
+    }
+
+    @Test
+    public void doFilter_ShouldKeyAnonymousClientsByAddress() throws Exception {
+        assertEquals(200, perform(post("/api/user/login", "10.0.0.1")).getStatus());
+        assertEquals(429, perform(post("/api/user/login", "10.0.0.1")).getStatus());
+        assertEquals(200, perform(post("/api/user/login", "10.0.0.2")).getStatus());
+
+        // no limit is configured for writes, and only /api is limited
+        assertEquals(200, perform(post("/api/tasks", "10.0.0.1")).getStatus());
+        assertEquals(200, perform(get("/actuator/health", null)).getStatus());
+        assertEquals(2, rateLimiter.size());
+    }
+
+    @Test
+    public void evictIdle_ShouldDropClientsIdleLongerThanTimeout() throws Exception {
+        RateLimiter limiter = new RateLimiter(Map.of("ANONYMOUS AUTH", new RateLimiter.Limit(1000, 1)),
+                Duration.ofMillis(50), 1);
+        assertEquals(0, limiter.acquire(RateLimiter.Tier.ANONYMOUS, "10.0.0.1", RateLimiter.RouteClass.AUTH, 1));
+        // over max-clients new clients share one set of buckets
+        assertEquals(0, limiter.acquire(RateLimiter.Tier.ANONYMOUS, "10.0.0.2", RateLimiter.RouteClass.AUTH, 1));
+        assertEquals(1, limiter.size());
+
+        limiter.evictIdle();
+        assertEquals(1, limiter.size());
+        Thread.sleep(100);
+        limiter.evictIdle();
+        assertEquals(0, limiter.size());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String uri, String size) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (size != null) {
+            request.setParameter("size", size);
+        }
+        return request;
+    }
+
+    private static MockHttpServletRequest post(String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static void authenticate(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setRole(User.Role.USER);
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
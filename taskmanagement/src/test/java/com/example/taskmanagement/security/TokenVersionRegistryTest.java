@@ -0,0 +1,57 @@
+package com.example.taskmanagement.security;
+
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    public void isCurrent_ShouldCacheVersionUntilTtl() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(0)));
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, 100, Duration.ofMinutes(1));
+
+        assertTrue(registry.isCurrent(1L, 0));
+        assertTrue(registry.isCurrent(1L, 0));
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void isCurrent_ShouldSeeRevocationMadeElsewhereOnceEntryExpired() {
+        // another node has bumped the version in the database
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1)));
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, 100, Duration.ZERO);
+        registry.update(user(0));
+
+        assertFalse(registry.isCurrent(1L, 0));
+        assertTrue(registry.isCurrent(1L, 1));
+    }
+
+    @Test
+    public void isCurrent_ShouldRejectUnknownUser() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, 100, Duration.ofMinutes(1));
+
+        assertFalse(registry.isCurrent(2L, 0));
+    }
+
+    private static User user(int tokenVersion) {
+        User user = new User();
+        user.setId(1L);
+        user.setTokenVersion(tokenVersion);
+        return user;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskCacheTest {
+
+    private final TaskCache taskCache = new TaskCache(100, Duration.ofMinutes(1));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void get_ShouldLoadOnceUntilTheTaskChanges() {
+        taskCache.get(1L, this::load);
+        taskCache.get(1L, this::load);
+        taskCache.get(2L, this::load);
+        assertEquals(2, loads.get());
+
+        taskCache.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.COMMENTED, 1L, 2, Task.Status.WAITING,
+                Task.Priority.LOW, "author@example.com", null, Task.Status.WAITING, Task.Priority.LOW, null));
+
+        assertNull(taskCache.getIfPresent(1L));
+        assertEquals(1L, taskCache.get(1L, this::load).getId());
+        assertNotNull(taskCache.getIfPresent(2L));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void bindTo_ShouldExposeHitRatio() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        taskCache.bindTo(registry);
+
+        taskCache.get(1L, this::load);
+        taskCache.get(1L, this::load);
+        taskCache.get(1L, this::load);
+
+        assertEquals(2.0 / 3, registry.get("cache.hit.ratio").gauge().value(), 1e-9);
+        assertEquals(2.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    private TaskResponse load(Long taskId) {
+        loads.incrementAndGet();
+        TaskResponse response = new TaskResponse();
+        response.setId(taskId);
+        return response;
+    }
+}
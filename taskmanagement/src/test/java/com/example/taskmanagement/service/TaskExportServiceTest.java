@@ -0,0 +1,117 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.ExportFormat;
+import com.example.taskmanagement.dto.TaskFilter;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "app.tasks.export-fetch-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TaskExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class TaskExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User author;
+
+    @BeforeEach
+    public void setUp() {
+        author = new User();
+        author.setEmail(UUID.randomUUID() + "@example.com");
+        author.setPassword("password");
+        author.setRole(User.Role.ADMIN);
+        entityManager.persist(author);
+
+        persistTask("First", "plain");
+        persistTask("Second", "has, a comma and \"quotes\"\nand a line break");
+        persistTask("Third", null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void exportTasks_ShouldStreamNdjsonInIdOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = taskExportService.exportTasks(byAuthor(), ExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, rows);
+        assertEquals(3, lines.size());
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals("Second", second.get("title").asText());
+        assertEquals("has, a comma and \"quotes\"\nand a line break", second.get("description").asText());
+        assertEquals(author.getEmail(), second.get("author").asText());
+        assertTrue(objectMapper.readTree(lines.get(0)).get("id").asLong() < second.get("id").asLong());
+    }
+
+    @Test
+    public void exportTasks_ShouldQuoteCsvFields() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskExportService.exportTasks(byAuthor(), ExportFormat.CSV, out);
+
+        String[] records = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(4, records.length);
+        assertEquals("id,title,description,status,priority,author,assignee,commentCount,version", records[0]);
+        assertTrue(records[2].contains(",Second,\"has, a comma and \"\"quotes\"\"\nand a line break\",WAITING,"));
+        assertTrue(records[3].contains(",Third,,WAITING,"));
+    }
+
+    @Test
+    public void exportTasks_ShouldEscapeCsvFormulas() throws IOException {
+        persistTask("=HYPERLINK(\"http://example.com\")", "@SUM(1, 2)");
+        persistTask("-1", "+ plain text");
+        entityManager.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskExportService.exportTasks(byAuthor(), ExportFormat.CSV, out);
+
+        String[] records = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(6, records.length);
+        assertTrue(records[4].contains(",\"'=HYPERLINK(\"\"http://example.com\"\")\",\"'@SUM(1, 2)\",WAITING,"));
+        assertTrue(records[5].contains(",'-1,'+ plain text,WAITING,"));
+        assertTrue(records[1].contains(",First,plain,WAITING,"));
+    }
+
+    private TaskFilter byAuthor() {
+        return TaskFilter.byAuthor(author.getId());
+    }
+
+    private void persistTask(String title, String description) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setStatus(Task.Status.WAITING);
+        task.setPriority(Task.Priority.LOW);
+        task.setAuthor(author);
+        entityManager.persist(task);
+    }
+}
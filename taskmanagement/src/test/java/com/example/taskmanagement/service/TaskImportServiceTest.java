@@ -0,0 +1,103 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskImportResult;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.security.UserCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.tasks.import-chunk-size=500"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TaskImportService.class, UserCache.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+public class TaskImportServiceTest {
+
+    private static final int TASKS = 1000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    private User admin;
+
+    @BeforeEach
+    public void setUp() {
+        admin = new User();
+        admin.setEmail(UUID.randomUUID() + "@example.com");
+        admin.setPassword("password");
+        admin.setRole(User.Role.ADMIN);
+        entityManager.persistAndFlush(admin);
+    }
+
+    @Test
+    public void importTasks_ShouldInsertInJdbcBatches() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < TASKS; i++) {
+            ndjson.append("{\"title\":\"Task ").append(i).append("\",\"assigneeId\":").append(admin.getId())
+                    .append(",\"comments\":[\"first\",\"second\"]}\n");
+        }
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        TaskImportResult result = taskImportService.importTasks(body(ndjson.toString()), admin.getEmail());
+
+        assertEquals(TASKS, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals(3L * TASKS, statistics.getEntityInsertCount());
+        // 3000 rows need 60 insert batches and 60 sequence calls, plus one user lookup per chunk
+        assertTrue(statistics.getPrepareStatementCount() <= 130,
+                () -> statistics.getPrepareStatementCount() + " statements prepared");
+    }
+
+    @Test
+    public void importTasks_ShouldReportInvalidItemsAndKeepTheRest() throws IOException {
+        String json = """
+                [
+                  {"title": "Valid", "comments": ["ok"]},
+                  {"title": " "},
+                  {"title": "Unknown assignee", "assigneeId": -1},
+                  {"title": "Bad status", "status": "DONE"},
+                  {"title": "Also valid", "authorId": %d}
+                ]
+                """.formatted(admin.getId());
+
+        TaskImportResult result = taskImportService.importTasks(body(json), admin.getEmail());
+
+        assertEquals(5, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(List.of(1, 2, 3), result.getErrors().stream().map(TaskImportResult.ItemError::index).toList());
+        assertEquals("Assignee -1 not found", result.getErrors().get(1).message());
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.Comment;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.mapper.TaskMapper;
+import com.example.taskmanagement.repository.TaskCountEstimator;
+import com.example.taskmanagement.search.TaskSearchIndex;
+import com.example.taskmanagement.security.UserCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the list endpoints against N+1 selects: a page has to be loaded with a fixed number
+ * of statements no matter how many tasks, users and comments it contains.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TaskService.class, TaskMapper.class, UserCache.class, TaskCountEstimator.class, TaskCache.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class TaskServiceQueryCountTest {
+
+    private static final int PAGE_SIZE = 50;
+    private static final long MAX_STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockitoBean
+    private TaskSearchIndex taskSearchIndex;
+
+    private Statistics statistics;
+    private User author;
+    private User assignee;
+
+    @BeforeEach
+    public void setUp() {
+        author = persistUser(User.Role.ADMIN);
+        assignee = persistUser(User.Role.USER);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            // every task gets its own assignee so that lazy user loading would show up as extra selects
+            User taskAssignee = i == 0 ? assignee : persistUser(User.Role.USER);
+
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setStatus(Task.Status.WAITING);
+            task.setPriority(Task.Priority.MEDIUM);
+            task.setAuthor(author);
+            task.setAssignee(i % 2 == 0 ? assignee : taskAssignee);
+            entityManager.persist(task);
+
+            for (int j = 0; j < 3; j++) {
+                Comment comment = new Comment();
+                comment.setText("Comment " + j);
+                comment.setAuthor(taskAssignee);
+                comment.setTask(task);
+                entityManager.persist(comment);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void getAllTasks_ShouldLoadPageInFixedNumberOfStatements() {
+        Page<TaskResponse> page = taskService.getAllTasks(PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Statements executed: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getTasksByAuthor_ShouldLoadPageInFixedNumberOfStatements() {
+        Page<TaskResponse> page = taskService.getTasksByAuthor(author.getId(), PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertTrue(page.getContent().stream().allMatch(t -> t.getComments().size() == 3));
+        // one extra statement for the author existence check
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE + 1,
+                "Statements executed: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getTasksByAssignee_ShouldLoadPageInFixedNumberOfStatements() {
+        Page<TaskResponse> page = taskService.getTasksByAssignee(assignee.getId(), PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(PAGE_SIZE / 2, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE + 1,
+                "Statements executed: " + statistics.getPrepareStatementCount());
+    }
+
+    private User persistUser(User.Role role) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setRole(role);
+        return entityManager.persist(user);
+    }
+}
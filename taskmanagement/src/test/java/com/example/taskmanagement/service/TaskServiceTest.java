@@ -1,23 +1,48 @@
 package com.example.taskmanagement.service;
 
+import com.example.taskmanagement.dto.CommentSummary;
+import com.example.taskmanagement.dto.CountMode;
+import com.example.taskmanagement.dto.TaskBulkUpdate;
+import com.example.taskmanagement.dto.TaskBulkUpdateResult;
+import com.example.taskmanagement.dto.TaskFilter;
 import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.dto.TaskSummary;
+import com.example.taskmanagement.dto.TaskTransition;
 import com.example.taskmanagement.entity.Comment;
 import com.example.taskmanagement.entity.Task;
 import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TaskTextChangedEvent;
 import com.example.taskmanagement.mapper.TaskMapper;
 import com.example.taskmanagement.repository.CommentRepository;
+import com.example.taskmanagement.repository.TaskCountEstimator;
 import com.example.taskmanagement.repository.TaskRepository;
 import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.search.TaskSearchIndex;
+import com.example.taskmanagement.security.UserCache;
+import com.example.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,7 +50,6 @@ import static org.mockito.Mockito.*;
 
 public class TaskServiceTest {
 
-    @InjectMocks
     private TaskService taskService;
 
     @Mock
@@ -40,15 +64,31 @@ public class TaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private TaskCountEstimator taskCountEstimator;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private UserCache userCache;
     private User user;
     private Task task;
     private TaskResponse taskResponse;
+    private TaskSummary taskSummary;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        userCache = new UserCache(userRepository);
+        taskService = new TaskService(taskRepository, userRepository, commentRepository, taskMapper,
+                userCache, taskCountEstimator, taskSearchIndex, eventPublisher,
+                new TaskCache(100, Duration.ofMinutes(1)));
 
         user = new User();
+        user.setId(1L);
         user.setEmail("test@example.com");
         user.setRole(User.Role.ADMIN);
 
@@ -60,6 +100,13 @@ public class TaskServiceTest {
         taskResponse.setId(task.getId());
         taskResponse.setTitle("Test Task");
         taskResponse.setAuthor(user.getEmail());
+
+        taskSummary = TaskSummary.builder().id(task.getId()).title("Test Task").author(user.getEmail()).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -72,12 +119,14 @@ public class TaskServiceTest {
 
         assertEquals(taskResponse, result);
         verify(taskRepository).save(task);
+        verify(eventPublisher).publishEvent(TaskTextChangedEvent.of(task));
+        verifyNoInteractions(taskSearchIndex);
     }
 
     @Test
     public void updateTask_ShouldReturnUpdatedTaskResponse() {
         when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
+        when(taskRepository.saveAndFlush(task)).thenReturn(task);
         when(taskMapper.fromTask(task)).thenReturn(taskResponse);
 
         Task updatedTask = new Task();
@@ -85,7 +134,17 @@ public class TaskServiceTest {
         taskService.updateTask(task.getId(), updatedTask);
 
         assertEquals("Updated Task", task.getTitle());
-        verify(taskRepository).save(task);
+        verify(taskRepository).saveAndFlush(task);
+    }
+
+    @Test
+    public void updateTask_ShouldRejectStaleVersion() {
+        task.setVersion(3);
+        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> taskService.updateTask(task.getId(), new Task(), 2L));
+        verify(taskRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -97,75 +156,215 @@ public class TaskServiceTest {
         verify(taskRepository).delete(task);
     }
 
+    @Test
+    public void getTask_ShouldLoadSummaryWithCommentPreviewOnce() {
+        when(taskRepository.findSummariesByIds(List.of(task.getId()))).thenReturn(List.of(taskSummary));
+        when(taskMapper.fromSummaries(eq(List.of(taskSummary)), any())).thenReturn(List.of(taskResponse));
+
+        assertEquals(taskResponse, taskService.getTask(task.getId()));
+        assertEquals(taskResponse, taskService.getTask(task.getId()));
+        verify(taskRepository).findSummariesByIds(any());
+        verify(taskRepository, never()).findById(any());
+    }
+
+    @Test
+    public void getTaskVersion_ShouldReadOnlyTheVersion() {
+        when(taskRepository.findVersionById(task.getId())).thenReturn(Optional.of(7L));
+        when(taskRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertEquals(7L, taskService.getTaskVersion(task.getId()));
+        assertThrows(NoSuchElementException.class, () -> taskService.getTaskVersion(99L));
+        verifyNoInteractions(commentRepository, taskMapper);
+    }
+
     @Test
     public void getAllTasks_ShouldReturnPageOfTaskResponse() {
-        Page<Task> taskPage = new PageImpl<>(List.of(task));
-        when(taskRepository.findAll(any(Pageable.class))).thenReturn(taskPage);
-        when(taskMapper.fromAll(taskPage)).thenReturn(new PageImpl<>(List.of(taskResponse)));
+        Page<TaskSummary> summaryPage = new PageImpl<>(List.of(taskSummary));
+        List<CommentSummary> comments = List.of(new CommentSummary(10L, task.getId(), "Comment", user.getEmail()));
+        when(taskRepository.findSummaries(any(TaskFilter.class), any(Pageable.class))).thenReturn(summaryPage);
+        when(commentRepository.findPreviewsByTaskIds(List.of(task.getId()), 0)).thenReturn(comments);
+        when(taskMapper.fromSummaries(summaryPage, comments)).thenReturn(new PageImpl<>(List.of(taskResponse)));
 
         Page<TaskResponse> result = taskService.getAllTasks(Pageable.ofSize(10));
 
         assertEquals(1, result.getTotalElements());
-        verify(taskRepository).findAll(any(Pageable.class));
+        verify(taskRepository).findSummaries(any(TaskFilter.class), any(Pageable.class));
+        verify(taskRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    public void getAllTasks_ShouldSkipCount_WhenCountModeIsNone() {
+        Pageable pageable = Pageable.ofSize(1);
+        when(taskRepository.sliceSummaries(any(TaskFilter.class), eq(pageable))).thenReturn(new SliceImpl<>(List.of(taskSummary), pageable, true));
+        when(taskMapper.fromSummaries(anyList(), anyList())).thenReturn(List.of(taskResponse));
+
+        Page<TaskResponse> result = taskService.getAllTasks(pageable, CountMode.NONE);
+
+        assertTrue(result.hasNext());
+        verify(taskRepository, never()).findSummaries(any(TaskFilter.class), any(Pageable.class));
+        verify(taskRepository, never()).countSummaries(any(TaskFilter.class));
+        verifyNoInteractions(taskCountEstimator);
+    }
+
+    @Test
+    public void getAllTasks_ShouldUseEstimate_WhenCountModeIsEstimate() {
+        Pageable pageable = Pageable.ofSize(1);
+        when(taskRepository.sliceSummaries(any(TaskFilter.class), eq(pageable))).thenReturn(new SliceImpl<>(List.of(taskSummary), pageable, true));
+        when(taskMapper.fromSummaries(anyList(), anyList())).thenReturn(List.of(taskResponse));
+        when(taskCountEstimator.estimate(any(TaskFilter.class))).thenReturn(1000L);
+
+        Page<TaskResponse> result = taskService.getAllTasks(pageable, CountMode.ESTIMATE);
+
+        assertEquals(1000L, result.getTotalElements());
+        verify(taskRepository, never()).countSummaries(any(TaskFilter.class));
+    }
+
+    @Test
+    public void getAllTasks_ShouldFallBackToCount_WhenNoEstimateAvailable() {
+        Pageable pageable = Pageable.ofSize(1);
+        when(taskRepository.sliceSummaries(any(TaskFilter.class), eq(pageable))).thenReturn(new SliceImpl<>(List.of(taskSummary), pageable, true));
+        when(taskMapper.fromSummaries(anyList(), anyList())).thenReturn(List.of(taskResponse));
+        when(taskCountEstimator.estimate(any(TaskFilter.class))).thenReturn(-1L);
+        when(taskRepository.countSummaries(any(TaskFilter.class))).thenReturn(5L);
+
+        Page<TaskResponse> result = taskService.getAllTasks(pageable, CountMode.ESTIMATE);
+
+        assertEquals(5L, result.getTotalElements());
+    }
+
+    @Test
+    public void getAllTasks_ShouldRejectUnknownSortProperty() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("password"));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.getAllTasks(pageable, CountMode.EXACT));
+        verify(taskRepository, never()).findSummaries(any(TaskFilter.class), any(Pageable.class));
+    }
+
+    @Test
+    public void searchTasks_ShouldKeepRelevanceOrder() {
+        TaskSummary second = TaskSummary.builder().id(2L).title("Second").build();
+        when(taskSearchIndex.search("report", 0, 10)).thenReturn(new TaskSearchIndex.Hits(List.of(2L, 1L, 3L), 3));
+        when(taskRepository.findSummariesByIds(List.of(2L, 1L, 3L))).thenReturn(List.of(taskSummary, second));
+        when(taskMapper.fromSummaries(anyList(), anyList())).thenReturn(List.of());
+
+        taskService.searchTasks("report", Pageable.ofSize(10));
+
+        verify(taskMapper).fromSummaries(eq(List.of(second, taskSummary)), anyList());
+    }
+
+    @Test
+    public void bulkUpdate_ShouldRestrictUsersToTheirOwnTasks() {
+        user.setRole(User.Role.USER);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        TaskBulkUpdate update = new TaskBulkUpdate();
+        update.setIds(List.of(1L, 2L));
+        update.setStatus(Task.Status.COMPLETED);
+        TaskSummary updated = TaskSummary.builder().id(2L).title("Second").status(Task.Status.COMPLETED)
+                .assignee(user.getEmail()).version(1L).build();
+        when(taskRepository.bulkUpdate(eq(update), eq(user.getId()), anyInt(), eq(user.getEmail())))
+                .thenReturn(List.of(new TaskTransition(updated, Task.Status.WAITING, null, user.getEmail())));
+
+        TaskBulkUpdateResult result = taskService.bulkUpdate(update, user.getEmail());
+
+        assertEquals(1, result.getCount());
+        assertEquals(List.of(2L), result.getIds());
+    }
+
+    @Test
+    public void bulkUpdate_ShouldRejectPriorityChangesByUsers() {
+        user.setRole(User.Role.USER);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        TaskBulkUpdate update = new TaskBulkUpdate();
+        update.setIds(List.of(1L));
+        update.setPriority(Task.Priority.HIGH);
+
+        assertThrows(AccessDeniedException.class, () -> taskService.bulkUpdate(update, user.getEmail()));
+        verify(taskRepository, never()).bulkUpdate(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void bulkUpdate_ShouldRejectFilterSelectingTooManyTasks() {
+        user.setRole(User.Role.USER);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        TaskBulkUpdate update = new TaskBulkUpdate();
+        update.setFilter(TaskFilter.byAuthor(user.getId()));
+        update.setStatus(Task.Status.COMPLETED);
+        TaskSummary updated = TaskSummary.builder().id(2L).status(Task.Status.COMPLETED).version(1L).build();
+        when(taskRepository.bulkUpdate(eq(update), eq(user.getId()), eq(10_001), eq(user.getEmail())))
+                .thenReturn(Collections.nCopies(10_001, new TaskTransition(updated, Task.Status.WAITING, null, null)));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.bulkUpdate(update, user.getEmail()));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    public void bulkUpdate_ShouldRequireASelection() {
+        TaskBulkUpdate update = new TaskBulkUpdate();
+        update.setFilter(new TaskFilter());
+        update.setStatus(Task.Status.COMPLETED);
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.bulkUpdate(update, user.getEmail()));
     }
 
     @Test
     public void getTasksByAuthor_ShouldReturnPageOfTaskResponse() {
-        Page<Task> taskPage = new PageImpl<>(List.of(task));
+        Page<TaskSummary> summaryPage = new PageImpl<>(List.of(taskSummary));
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(user.getId())).thenReturn(true);
 
-        when(taskRepository.findByAuthorId(eq(user.getId()), any(Pageable.class))).thenReturn(taskPage);
-        when(taskMapper.fromAll(taskPage)).thenReturn(new PageImpl<>(List.of(taskResponse)));
+        when(taskRepository.findSummaries(eq(TaskFilter.byAuthor(user.getId())), any(Pageable.class))).thenReturn(summaryPage);
+        when(taskMapper.fromSummaries(eq(summaryPage), any())).thenReturn(new PageImpl<>(List.of(taskResponse)));
 
         Page<TaskResponse> result = taskService.getTasksByAuthor(user.getId(), Pageable.ofSize(10));
 
         assertEquals(1, result.getTotalElements());
-        verify(taskRepository).findByAuthorId(eq(user.getId()), any(Pageable.class));
+        verify(taskRepository).findSummaries(eq(TaskFilter.byAuthor(user.getId())), any(Pageable.class));
+    }
+
+    @Test
+    public void getTasksByAuthor_ShouldThrowException_WhenUserNotFound() {
+        when(userRepository.existsById(user.getId())).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> {
+            taskService.getTasksByAuthor(user.getId(), Pageable.ofSize(10));
+        });
     }
 
     @Test
     public void assignTask_ShouldReturnAssignedTaskResponse() {
-        User assignee = new User();
-        assignee.setId(2L);
-        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
-        when(userRepository.findById(assignee.getId())).thenReturn(Optional.of(assignee));
-        when(taskRepository.save(task)).thenReturn(task);
-        when(taskMapper.fromTask(task)).thenReturn(taskResponse);
+        stubConditionalUpdate();
 
-        TaskResponse result = taskService.assignTask(task.getId(), assignee.getId());
+        TaskResponse result = taskService.assignTask(task.getId(), 2L);
 
         assertEquals(taskResponse, result);
-        assertEquals(assignee, task.getAssignee());
+        verify(taskRepository).updateIfMatches(eq(task.getId()),
+                argThat(change -> Long.valueOf(2L).equals(change.getAssigneeId())), isNull(), isNull());
     }
 
     @Test
     public void updatePriority_ShouldReturnUpdatedTaskResponse() {
 
-        task.setPriority(Task.Priority.HIGH);
-        taskResponse.setPriority(task.getPriority());
-
-        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+        taskResponse.setPriority(Task.Priority.HIGH);
         when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
-        when(taskRepository.save(task)).thenReturn(task);
-        when(taskMapper.fromTask(task)).thenReturn(taskResponse);
+        stubConditionalUpdate();
 
         TaskResponse result = taskService.updatePriority(task.getId(), Task.Priority.HIGH, user.getEmail());
 
-        assertEquals(result.getPriority(), task.getPriority());
-        verify(taskRepository).save(task);
-
-
+        assertEquals(Task.Priority.HIGH, result.getPriority());
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any());
     }
 
 
     @Test
     public void updatePriority_ShouldThrowException_WhenTaskNotFound() {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
         when(taskRepository.findById(task.getId())).thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class, () -> {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             taskService.updatePriority(task.getId(), Task.Priority.HIGH, user.getEmail());
         });
+        assertEquals("Task not found", exception.getMessage());
     }
 
     @Test
@@ -194,6 +393,9 @@ public class TaskServiceTest {
         assertNotNull(result);
         assertEquals(commentText, result.getText());
         verify(commentRepository).save(any(Comment.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof TaskTextChangedEvent changed
+                && changed.taskId() == task.getId() && commentText.equals(changed.comment())));
+        verify(commentRepository, never()).findSummariesByTaskIds(any());
     }
 
     @Test
@@ -209,23 +411,66 @@ public class TaskServiceTest {
     @Test
     public void updateStatus_ShouldReturnUpdatedTaskResponse() {
 
-        task.setStatus(Task.Status.IN_PROGRESS);
-        taskResponse.setStatus(task.getStatus());
+        taskResponse.setStatus(Task.Status.IN_PROGRESS);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        stubConditionalUpdate();
+
+        TaskResponse result = taskService.updateStatus(task.getId(), Task.Status.IN_PROGRESS, user.getEmail());
 
+        assertEquals(Task.Status.IN_PROGRESS, result.getStatus());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    public void updateStatus_ShouldPublishChangeEvent() {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        stubConditionalUpdate();
+
+        taskService.updateStatus(task.getId(), Task.Status.IN_PROGRESS, user.getEmail());
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof TaskChangedEvent changed
+                && changed.type() == TaskChangedEvent.Type.UPDATED && changed.taskId() == task.getId()
+                && user.getEmail().equals(changed.author())));
+    }
+
+    @Test
+    public void updateStatus_ShouldReportVersionConflict() {
+        task.setVersion(5);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
         when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> taskService.updateStatus(task.getId(), Task.Status.COMPLETED, user.getEmail(), 4L));
+        verify(taskRepository).updateIfMatches(eq(task.getId()), any(), eq(4L), isNull());
+    }
+
+    @Test
+    public void updateStatus_ShouldRetryOnceAndReportConflict_WhenUpdateWithoutVersionLosesRace() {
+        user.setRole(User.Role.USER);
+        task.setAssignee(user);
         when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
-        when(taskRepository.save(task)).thenReturn(task);
-        when(taskMapper.fromTask(task)).thenReturn(taskResponse);
+        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
 
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> taskService.updateStatus(task.getId(), Task.Status.COMPLETED, user.getEmail()));
+        verify(taskRepository, times(2)).updateIfMatches(eq(task.getId()), any(), isNull(), eq(user.getId()));
+    }
 
-        TaskResponse result = taskService.updateStatus(task.getId(), Task.Status.IN_PROGRESS, user.getEmail());
+    @Test
+    public void updateStatus_ShouldDenyAccess_WhenTaskIsUnassigned() {
+        user.setRole(User.Role.USER);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
 
-        assertEquals(result.getStatus(), task.getStatus());
-        verify(taskRepository).save(task);
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> taskService.updateStatus(task.getId(), Task.Status.COMPLETED, user.getEmail()));
+        assertEquals("Access denied", exception.getMessage());
+        verify(taskRepository).updateIfMatches(eq(task.getId()), any(), isNull(), eq(user.getId()));
     }
 
     @Test
     public void updateStatus_ShouldThrowException_WhenTaskNotFound() {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
         when(taskRepository.findById(task.getId())).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> {
@@ -233,5 +478,59 @@ public class TaskServiceTest {
         });
     }
 
+    @Test
+    public void mutatingMethods_ShouldQueryUserAtMostOnceEach() {
+        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(taskRepository.save(task)).thenReturn(task);
+        when(taskMapper.fromTask(task)).thenReturn(taskResponse);
+        stubConditionalUpdate();
+
+        assertQueriesUserAtMostOnce(() -> taskService.createTask(task, user.getEmail()));
+        assertQueriesUserAtMostOnce(() -> taskService.updateStatus(task.getId(), Task.Status.IN_PROGRESS, user.getEmail()));
+        assertQueriesUserAtMostOnce(() -> taskService.updatePriority(task.getId(), Task.Priority.LOW, user.getEmail()));
+        assertQueriesUserAtMostOnce(() -> taskService.addComment(task.getId(), "Comment text", user.getEmail()));
+    }
 
-}
\ No newline at end of file
+    /**
+     * Runs the operation with an empty user cache, so that every lookup it makes reaches the repository.
+     */
+    private void assertQueriesUserAtMostOnce(Runnable operation) {
+        userCache.invalidate(user.getEmail());
+        clearInvocations(userRepository);
+        operation.run();
+        verify(userRepository, atMostOnce()).findByEmail(user.getEmail());
+    }
+
+    @Test
+    public void addComment_ShouldQueryUserOnce() {
+        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        Comment result = taskService.addComment(task.getId(), "Comment text", user.getEmail());
+
+        assertEquals(user, result.getAuthor());
+        verify(userRepository, times(1)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    public void mutatingMethods_ShouldUseAuthenticatedUser_WithoutUserQuery() {
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+        stubConditionalUpdate();
+
+        taskService.updateStatus(task.getId(), Task.Status.COMPLETED, user.getEmail());
+        taskService.updatePriority(task.getId(), Task.Priority.HIGH, user.getEmail());
+        taskService.addComment(task.getId(), "Comment text", user.getEmail());
+
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    private void stubConditionalUpdate() {
+        when(taskRepository.updateIfMatches(eq(task.getId()), any(), any(), any())).thenReturn(Optional.of(new TaskTransition(taskSummary, null, null, null)));
+        when(taskMapper.fromSummaries(eq(List.of(taskSummary)), anyList())).thenReturn(List.of(taskResponse));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskCount;
+import com.example.taskmanagement.dto.TaskStats;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.security.UserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskStatisticsTest {
+
+    private static final String AUTHOR = "author@example.com";
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskStatistics taskStatistics;
+
+    @BeforeEach
+    public void setUp() {
+        taskStatistics = new TaskStatistics(taskRepository, new UserCache(userRepository), transactionManager);
+    }
+
+    @Test
+    public void onTaskChanged_ShouldMoveTasksBetweenCounters() {
+        taskStatistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, Task.Status.WAITING, Task.Priority.HIGH, ALICE,
+                null, null, null));
+        taskStatistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, Task.Status.WAITING, Task.Priority.LOW, ALICE,
+                null, null, null));
+        taskStatistics.onTaskChanged(event(TaskChangedEvent.Type.UPDATED, Task.Status.IN_PROGRESS, Task.Priority.HIGH, BOB,
+                Task.Status.WAITING, Task.Priority.HIGH, ALICE));
+        taskStatistics.onTaskChanged(event(TaskChangedEvent.Type.DELETED, Task.Status.WAITING, Task.Priority.LOW, ALICE,
+                Task.Status.WAITING, Task.Priority.LOW, ALICE));
+
+        TaskStats total = taskStatistics.getStats(null, null);
+        assertEquals(1, total.getTotal());
+        assertEquals(0, total.getByStatus().get(Task.Status.WAITING));
+        assertEquals(1, total.getByStatusAndPriority().get(Task.Status.IN_PROGRESS).get(Task.Priority.HIGH));
+
+        assertEquals(0, taskStatistics.getStats(user(1L, ALICE), null).getTotal());
+        assertEquals(1, taskStatistics.getStats(user(2L, BOB), null).getByStatus().get(Task.Status.IN_PROGRESS));
+        assertEquals(1, taskStatistics.getStats(null, user(3L, AUTHOR)).getByPriority().get(Task.Priority.HIGH));
+    }
+
+    @Test
+    public void reconcile_ShouldCorrectDriftAndKeepLaterChanges() {
+        taskStatistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, Task.Status.WAITING, Task.Priority.LOW, ALICE,
+                null, null, null));
+        when(taskRepository.countByAuthor()).thenReturn(List.of(
+                new TaskCount(AUTHOR, Task.Status.COMPLETED, Task.Priority.LOW, 5),
+                new TaskCount(null, null, null, 2)));
+        when(taskRepository.countByAssignee()).thenAnswer(invocation -> {
+            // a change that commits while the database is being counted
+            taskStatistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, Task.Status.WAITING, Task.Priority.LOW,
+                    BOB, null, null, null));
+            return List.of(new TaskCount(BOB, Task.Status.COMPLETED, Task.Priority.LOW, 3));
+        });
+
+        taskStatistics.reconcile();
+
+        TaskStats total = taskStatistics.getStats(null, null);
+        assertEquals(8, total.getTotal());
+        assertEquals(5, total.getByStatus().get(Task.Status.COMPLETED));
+        assertEquals(1, total.getByStatus().get(Task.Status.WAITING));
+        assertEquals(0, taskStatistics.getStats(user(1L, ALICE), null).getTotal());
+        assertEquals(4, taskStatistics.getStats(user(2L, BOB), null).getTotal());
+        assertEquals(6, taskStatistics.getStats(null, user(3L, AUTHOR)).getTotal());
+    }
+
+    @Test
+    public void getStats_ShouldResolveUsersThroughTheCache() {
+        Long bob = user(2L, BOB);
+
+        taskStatistics.getStats(bob, null);
+        taskStatistics.getStats(null, bob);
+
+        verify(userRepository, times(1)).findById(bob);
+    }
+
+    @Test
+    public void getStats_ShouldRejectAssigneeAndAuthorTogether() {
+        assertThrows(IllegalArgumentException.class, () -> taskStatistics.getStats(1L, 2L));
+    }
+
+    private Long user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        return id;
+    }
+
+    private static TaskChangedEvent event(TaskChangedEvent.Type type, Task.Status status, Task.Priority priority,
+                                          String assignee, Task.Status previousStatus,
+                                          Task.Priority previousPriority, String previousAssignee) {
+        return new TaskChangedEvent(type, 1L, 1, status, priority, AUTHOR, assignee, previousStatus,
+                previousPriority, previousAssignee);
+    }
+}
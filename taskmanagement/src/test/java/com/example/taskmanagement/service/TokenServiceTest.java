@@ -0,0 +1,106 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TokenResponse;
+import com.example.taskmanagement.entity.RefreshSession;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.jwt.JWTUtils;
+import com.example.taskmanagement.jwt.VerifiedTokenCache;
+import com.example.taskmanagement.repository.RefreshSessionRepository;
+import com.example.taskmanagement.security.TokenRevocationRegistry;
+import com.example.taskmanagement.security.UserCache;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private RefreshSessionRepository refreshSessionRepository;
+
+    private JWTUtils jwtUtils;
+    private TokenRevocationRegistry tokenRevocationRegistry;
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtils = new JWTUtils(new VerifiedTokenCache(100), Duration.ofMinutes(5));
+        tokenRevocationRegistry = new TokenRevocationRegistry(refreshSessionRepository, Duration.ofMinutes(5));
+        tokenService = new TokenService(userService, userCache, jwtUtils, refreshSessionRepository,
+                tokenRevocationRegistry, Duration.ofDays(1));
+
+        user = new User();
+        user.setId(7L);
+        user.setEmail("test@example.com");
+        user.setRole(User.Role.USER);
+        user.setTokenVersion(2);
+    }
+
+    @Test
+    public void refresh_ShouldRotateRefreshToken() {
+        when(userService.authenticate("test@example.com", "pw", "127.0.0.1")).thenReturn(user);
+        when(userCache.getByEmail("test@example.com")).thenReturn(user);
+        TokenResponse login = tokenService.login("test@example.com", "pw", "127.0.0.1");
+        UUID sessionId = JWTUtils.sessionId(jwtUtils.verify(login.getAccessToken()));
+        when(refreshSessionRepository.rotate(eq(sessionId), eq(0), any())).thenReturn(1);
+
+        TokenResponse refreshed = tokenService.refresh(login.getRefreshToken());
+
+        Claims refreshClaims = jwtUtils.verifyRefreshToken(refreshed.getRefreshToken());
+        assertEquals(sessionId, JWTUtils.sessionId(refreshClaims));
+        assertEquals(1, refreshClaims.get(JWTUtils.GENERATION_CLAIM, Integer.class));
+        assertEquals(300, refreshed.getExpiresIn());
+        assertNull(jwtUtils.verifyRefreshToken(refreshed.getAccessToken()));
+        verify(refreshSessionRepository).save(any(RefreshSession.class));
+    }
+
+    @Test
+    public void refresh_ShouldRevokeSessionWhenTokenIsReused() {
+        UUID sessionId = UUID.randomUUID();
+        String used = jwtUtils.generateRefreshToken(user, sessionId, 0, Instant.now().plusSeconds(600));
+        RefreshSession session = new RefreshSession();
+        session.setId(sessionId);
+        session.setGeneration(1);
+        when(userCache.getByEmail("test@example.com")).thenReturn(user);
+        when(refreshSessionRepository.rotate(eq(sessionId), eq(0), any())).thenReturn(0);
+        when(refreshSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(used));
+
+        assertTrue(tokenRevocationRegistry.isRevoked(sessionId));
+        verify(refreshSessionRepository).revoke(eq(sessionId), any());
+    }
+
+    @Test
+    public void refresh_ShouldRejectTokenOfRevokedUser() {
+        String token = jwtUtils.generateRefreshToken(user, UUID.randomUUID(), 0, Instant.now().plusSeconds(600));
+        User revoked = new User();
+        revoked.setId(7L);
+        revoked.setTokenVersion(3);
+        when(userCache.getByEmail("test@example.com")).thenReturn(revoked);
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(token));
+        verify(refreshSessionRepository, never()).rotate(any(), anyInt(), any());
+    }
+}